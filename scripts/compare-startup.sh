@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# 起動時間・メモリ使用量(RSS)の比較 通常のJAR / AOT処理済みのJAR(-Dspring.aot.enabled=true) / ネイティブイメージ
+#
+# 事前にビルドしておく(ネイティブイメージがなければその分は省略する)
+#   ./mvnw -Pnative package -DskipTests        AOT処理済みのJAR(通常のJARとしても起動できる)
+#   ./mvnw -Pnative native:compile -DskipTests ネイティブイメージ(GraalVMが必要)
+#
+# 実行例: scripts/compare-startup.sh 5 --spring.datasource.url=jdbc:mysql://localhost/daily_report_system
+#   第1引数: 各方式の起動回数(省略時は3) 以降の引数はアプリケーションにそのまま渡す(接続先DB等)
+#
+# 起動完了はログの "Started DailyReportSystemApplication in ..." で判定し、その時点のRSSを記録する
+# ポートは競合しないよう毎回空きポートを使い、管理用ポートのサーバは起動しない
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-3}
+shift || true
+APP_ARGS=(--server.port=0 --app.ajp.port=0 --management.server.port=-1 --app.missing-report.cron=- "$@")
+JAR=$(ls target/DailyReportSystemApplication-*.jar 2>/dev/null | head -1 || true)
+NATIVE=target/DailyReportSystemApplication
+TIMEOUT=120
+
+if [[ -z "$JAR" ]]; then
+    echo "target/にJARがありません。./mvnw -Pnative package -DskipTests を実行してください" >&2
+    exit 1
+fi
+
+# 1回起動し、"起動時間(秒) プロセス起動からの時間(秒) RSS(MB)" を出力して停止する
+measure() {
+    local log
+    log=$(mktemp)
+    "$@" "${APP_ARGS[@]}" >"$log" 2>&1 &
+    local pid=$!
+    local started=""
+    for ((i = 0; i < TIMEOUT * 10; i++)); do
+        started=$(grep -m1 -o 'Started DailyReportSystemApplication in [0-9.]* seconds (process running for [0-9.]*)' "$log" || true)
+        if [[ -n "$started" ]] || ! kill -0 "$pid" 2>/dev/null; then
+            break
+        fi
+        sleep 0.1
+    done
+    if [[ -z "$started" ]]; then
+        kill "$pid" 2>/dev/null || true
+        echo "起動に失敗しました(ログ: $log)" >&2
+        tail -20 "$log" >&2
+        return 1
+    fi
+    local rss_kb
+    rss_kb=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+    echo "$started" | awk -v rss="$rss_kb" '{ printf "%s %s %.1f\n", $4, substr($9, 1, length($9) - 1), rss / 1024 }'
+}
+
+# 指定回数起動し、平均を出力する
+compare() {
+    local name=$1
+    shift
+    local results=()
+    for ((run = 1; run <= RUNS; run++)); do
+        results+=("$(measure "$@")")
+    done
+    printf '%s\n' "${results[@]}" | awk -v name="$name" -v runs="$RUNS" \
+        '{ s += $1; p += $2; r += $3 } END { printf "%-8s %12.3f %12.3f %10.1f\n", name, s / runs, p / runs, r / runs }'
+}
+
+printf '%-8s %12s %12s %10s\n' "方式" "起動(秒)" "プロセス(秒)" "RSS(MB)"
+compare jvm java -jar "$JAR"
+compare aot java -Dspring.aot.enabled=true -jar "$JAR"
+if [[ -x "$NATIVE" ]]; then
+    compare native "$NATIVE"
+else
+    echo "native   ネイティブイメージがないため省略(./mvnw -Pnative native:compile)"
+fi
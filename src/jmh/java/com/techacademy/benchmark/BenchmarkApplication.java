@@ -0,0 +1,93 @@
+package com.techacademy.benchmark;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+
+import com.techacademy.DailyReportSystemApplication;
+import com.techacademy.service.ReportSummaryService;
+
+// ベンチマーク用にアプリケーションを起動し、指定した件数のデータを投入する
+// start()はWebサーバを起動せず、テストと同様にMockServletContext上でコンテキストを生成する
+// startServer()は負荷試験用に組み込みTomcatを空きポートで起動する
+public final class BenchmarkApplication {
+
+    // 投入する従業員のパスワード(平文)
+    public static final String RAW_PASSWORD = "password1234";
+
+    private BenchmarkApplication() {
+    }
+
+    // benchプロファイルでアプリケーションを起動する
+    public static ConfigurableApplicationContext start() {
+        SpringApplication application = new SpringApplication(DailyReportSystemApplication.class);
+        application.setWebApplicationType(WebApplicationType.SERVLET);
+        application.setApplicationContextFactory(type -> {
+            MockServletContext servletContext = new MockServletContext();
+            GenericWebApplicationContext context = new GenericWebApplicationContext(servletContext);
+            servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+            return context;
+        });
+        application.setAdditionalProfiles("bench");
+        return application.run();
+    }
+
+    // benchプロファイルで組み込みTomcatを起動する(HTTP・AJP・管理用ポートはいずれも空きポート)
+    public static ServletWebServerApplicationContext startServer(
+            ApplicationContextInitializer<ConfigurableApplicationContext> initializer, String... args) {
+        SpringApplication application = new SpringApplication(DailyReportSystemApplication.class);
+        application.setAdditionalProfiles("bench");
+        application.addInitializers(initializer);
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--management.server.port=0", "--app.ajp.port=0"));
+        arguments.addAll(List.of(args));
+        return (ServletWebServerApplicationContext) application.run(arguments.toArray(String[]::new));
+    }
+
+    // 従業員(コードは"E0"～)と、従業員ごとに本日から遡った日付の日報を投入する
+    public static void seed(ConfigurableApplicationContext context, int employees, int reportsPerEmployee) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String password = new BCryptPasswordEncoder().encode(RAW_PASSWORD);
+
+        List<Object[]> employeeRows = new ArrayList<>();
+        for (int i = 0; i < employees; i++) {
+            employeeRows.add(new Object[] { employeeCode(i), "従業員" + i, i == 0 ? "ADMIN" : "GENERAL", password, now, now });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employees(code,name,role,password,delete_flg,version,created_at,updated_at)"
+                + " VALUES (?,?,?,?,0,0,?,?)", employeeRows);
+
+        int reportId = 0;
+        for (int i = 0; i < employees; i++) {
+            List<Object[]> reportRows = new ArrayList<>();
+            for (int j = 0; j < reportsPerEmployee; j++) {
+                reportRows.add(new Object[] { ++reportId, Date.valueOf(LocalDate.now().minusDays(j)), "タイトル" + j,
+                        "日報の内容です。".repeat(20), employeeCode(i), now, now });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO reports(id,report_date,title,content,employee_code,delete_flg,version,created_at,updated_at)"
+                    + " VALUES (?,?,?,?,?,0,0,?,?)", reportRows);
+        }
+        // 日報IDの採番は投入したIDより後ろから始める
+        jdbcTemplate.execute("ALTER SEQUENCE reports_seq RESTART WITH " + (reportId + 1));
+        // 従業員・月ごとの集計は投入した日報から作り直す
+        context.getBean(ReportSummaryService.class).rebuild();
+    }
+
+    // 投入した従業員のコード
+    public static String employeeCode(int index) {
+        return "E" + index;
+    }
+}
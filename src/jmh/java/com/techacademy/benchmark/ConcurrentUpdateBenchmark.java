@@ -0,0 +1,117 @@
+package com.techacademy.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.Report;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+
+// 同じ日報を複数スレッドから同時に更新した場合のスループット
+// optimistic: @Versionによる楽観ロック(行ロックを取らず、競合した場合のみ読み直して再実行する)
+// pessimistic: SELECT ... FOR UPDATEによる悲観ロック(更新が終わるまで他のスレッドを待たせる)
+// hotReports(更新対象の日報数)を小さくするほど競合が増える
+// 実行例: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="ConcurrentUpdateBenchmark -p hotReports=1,100"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class ConcurrentUpdateBenchmark {
+
+    // ロック方式
+    @Param({ "optimistic", "pessimistic" })
+    private String locking;
+
+    // 更新対象の日報数(IDが1～hotReportsの日報を更新する)
+    @Param({ "1", "100" })
+    private int hotReports;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionTemplate transactionTemplate;
+
+    private EntityManager entityManager;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, 10, Math.max(hotReports / 10, 1) * 10);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // スレッドごとの競合(楽観ロックの再実行)の回数
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public void update(Conflicts counters) {
+        int id = ThreadLocalRandom.current().nextInt(hotReports) + 1;
+        if ("pessimistic".equals(locking)) {
+            updateWithRowLock(id);
+            return;
+        }
+        // 競合した場合は最新の内容を読み直して再実行する(画面で再度更新する操作に相当)
+        while (true) {
+            try {
+                updateWithVersion(id);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                counters.conflicts++;
+            }
+        }
+    }
+
+    // 行ロックを取らずに読み込み、UPDATEのバージョン条件で競合を検出する
+    private void updateWithVersion(int id) {
+        transactionTemplate.executeWithoutResult(status -> modify(entityManager.find(Report.class, id)));
+    }
+
+    // 行ロックを取って読み込み、コミットまで他の更新を待たせる
+    private void updateWithRowLock(int id) {
+        transactionTemplate.executeWithoutResult(
+                status -> modify(entityManager.find(Report.class, id, LockModeType.PESSIMISTIC_WRITE)));
+    }
+
+    private static void modify(Report report) {
+        report.setTitle("更新" + ThreadLocalRandom.current().nextInt(1000));
+        report.setUpdatedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,84 @@
+package com.techacademy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.service.EmployeeService;
+import com.techacademy.service.ReportService;
+import com.techacademy.service.UserDetail;
+import com.techacademy.service.UserDetailService;
+
+// 日報をN件持つ従業員の削除(毎回削除前の状態に戻してから計測する)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeServiceBenchmark {
+
+    // 従業員数
+    @Param("10")
+    private int employees;
+
+    // 削除する従業員の日報数
+    @Param({ "10", "1000" })
+    private int reportsPerEmployee;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private ReportService reportService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDetail loginUser;
+
+    private String targetCode;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, employees, reportsPerEmployee);
+        employeeService = context.getBean(EmployeeService.class);
+        reportService = context.getBean(ReportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        loginUser = (UserDetail) context.getBean(UserDetailService.class)
+                .loadUserByUsername(BenchmarkApplication.employeeCode(0));
+        targetCode = BenchmarkApplication.employeeCode(1);
+    }
+
+    // 削除した従業員・日報を元に戻す
+    @Setup(Level.Invocation)
+    public void restore() {
+        jdbcTemplate.update("UPDATE employees SET delete_flg = 0 WHERE code = ?", targetCode);
+        jdbcTemplate.update("UPDATE reports SET delete_flg = 0 WHERE employee_code = ?", targetCode);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ErrorKinds delete() {
+        return employeeService.delete(targetCode, loginUser, reportService);
+    }
+}
@@ -0,0 +1,54 @@
+package com.techacademy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.techacademy.SecurityConfig;
+
+// パスワード照合(ログイン1回分)のスループット
+// 1スレッドで計測するため、結果のops/sがそのまま1コアあたりのログイン数/秒となる
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+public class PasswordEncoderBenchmark {
+
+    private static final String RAW_PASSWORD = "password1234";
+
+    // ハッシュ方式とBCryptのコスト(方式:コスト) PBKDF2・Argon2はSpring Securityの既定値で固定のためコストを指定しない
+    @Param({ "bcrypt:8", "bcrypt:10", "bcrypt:12", "pbkdf2", "argon2" })
+    private String setting;
+
+    private PasswordEncoder encoder;
+
+    private String encodedPassword;
+
+    @Setup
+    public void setup() {
+        String[] values = setting.split(":");
+        int bcryptStrength = values.length > 1 ? Integer.parseInt(values[1]) : 10;
+        encoder = SecurityConfig.createPasswordEncoder(values[0], bcryptStrength);
+        encodedPassword = encoder.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(RAW_PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,112 @@
+package com.techacademy.benchmark;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.View;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import com.techacademy.service.ReportService;
+import com.techacademy.service.UserDetail;
+import com.techacademy.service.UserDetailService;
+
+// 日報一覧画面(reports/list)の表示
+// requestはコントローラ・SQLを含むリクエスト全体、renderはThymeleafの描画のみ
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportListRenderBenchmark {
+
+    // 従業員数
+    @Param("100")
+    private int employees;
+
+    // 従業員1人あたりの日報数
+    @Param("100")
+    private int reportsPerEmployee;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private UserDetail userDetail;
+
+    private View view;
+
+    private Map<String, Object> model;
+
+    @Setup
+    public void setup() throws Exception {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, employees, reportsPerEmployee);
+        WebApplicationContext webApplicationContext = (WebApplicationContext) context;
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+        userDetail = (UserDetail) context.getBean(UserDetailService.class)
+                .loadUserByUsername(BenchmarkApplication.employeeCode(0));
+
+        // 描画のみの計測用に、一覧画面と同じモデルを用意する
+        ReportService reportService = context.getBean(ReportService.class);
+        long listSize = reportService.count();
+        model = new HashMap<>();
+        model.put("listSize", listSize);
+        model.put("reportsList", reportService.findFirstPage(ReportService.PAGE_SIZE));
+        model.put("page", 1);
+        model.put("lastPage", (listSize + ReportService.PAGE_SIZE - 1) / ReportService.PAGE_SIZE);
+        model.put("hasPrev", false);
+        model.put("hasNext", true);
+        view = context.getBean(ThymeleafViewResolver.class).resolveViewName("reports/list", Locale.JAPAN);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetail, null, userDetail.getAuthorities()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request() throws Exception {
+        return mockMvc.perform(get("/reports").with(user(userDetail))).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse render() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(((WebApplicationContext) context).getServletContext(),
+                "GET", "/reports");
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, context);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        view.render(model, request, response);
+        return response;
+    }
+}
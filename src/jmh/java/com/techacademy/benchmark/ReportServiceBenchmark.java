@@ -0,0 +1,87 @@
+package com.techacademy.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportListView;
+import com.techacademy.service.ReportService;
+import com.techacademy.service.UserDetail;
+import com.techacademy.service.UserDetailService;
+
+// ReportServiceの登録時の重複チェック・一覧取得
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReportServiceBenchmark {
+
+    // 従業員数
+    @Param("100")
+    private int employees;
+
+    // 従業員1人あたりの日報数
+    @Param("100")
+    private int reportsPerEmployee;
+
+    private ConfigurableApplicationContext context;
+
+    private ReportService reportService;
+
+    private UserDetail userDetail;
+
+    private Report duplicateReport;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, employees, reportsPerEmployee);
+        reportService = context.getBean(ReportService.class);
+        userDetail = (UserDetail) context.getBean(UserDetailService.class)
+                .loadUserByUsername(BenchmarkApplication.employeeCode(1));
+
+        // ログイン中の従業員が既に日報がある日付で登録する(重複チェックでエラーとなり、書き込みは発生しない)
+        duplicateReport = new Report();
+        duplicateReport.setReportDate(LocalDate.now());
+        duplicateReport.setTitle("タイトル");
+        duplicateReport.setContent("内容");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ErrorKinds saveDuplicateCheck() {
+        return reportService.save(duplicateReport, userDetail);
+    }
+
+    @Benchmark
+    public List<Report> findAll() {
+        return reportService.findAll();
+    }
+
+    @Benchmark
+    public List<ReportListView> findFirstPage() {
+        return reportService.findFirstPage(ReportService.PAGE_SIZE);
+    }
+}
@@ -0,0 +1,180 @@
+package com.techacademy.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// 日報一覧(/reports)への負荷試験 プラットフォームスレッドと仮想スレッドのスループット・p99を比較する
+// 組み込みTomcatを起動し、HTTPで同時にリクエストする(Throughputは毎秒の件数、SampleTimeのp0.99がp99レイテンシ)
+// JDBCで待たされる状況を再現するため、SQLの発行ごとにdbLatencyMillisだけ待機させる
+// 実行例: ./mvnw -Pjmh,java21 test-compile exec:exec -Djmh.args="ThreadingLoadBenchmark -p dbLatencyMillis=5"
+// (仮想スレッドの計測にはJava 21が必要)
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(400)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ThreadingLoadBenchmark {
+
+    // リクエストを処理するスレッド(platform: Tomcatのスレッドプール / virtual: 仮想スレッド)
+    @Param({ "platform", "virtual" })
+    private String threading;
+
+    // SQL1回あたりに追加する待ち時間(ミリ秒)
+    @Param({ "0", "5" })
+    private long dbLatencyMillis;
+
+    // 従業員数
+    @Param("100")
+    private int employees;
+
+    // 従業員1人あたりの日報数
+    @Param("20")
+    private int reportsPerEmployee;
+
+    private ServletWebServerApplicationContext context;
+
+    private HttpClient client;
+
+    private HttpRequest listRequest;
+
+    // エラー(200以外・タイムアウト)となったリクエスト数
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Errors {
+        public long errors;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        boolean virtual = "virtual".equals(threading);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("仮想スレッドの計測にはJava 21で実行してください");
+        }
+        context = BenchmarkApplication.startServer(
+                ctx -> ctx.getBeanFactory().addBeanPostProcessor(new JdbcLatencyPostProcessor(dbLatencyMillis)),
+                "--spring.threads.virtual.enabled=" + virtual);
+        BenchmarkApplication.seed(context, employees, reportsPerEmployee);
+
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort();
+        client = HttpClient.newBuilder().cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER).connectTimeout(Duration.ofSeconds(10)).build();
+        login(baseUrl);
+        listRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/reports")).timeout(Duration.ofSeconds(30)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int list(Errors errors) throws Exception {
+        try {
+            HttpResponse<byte[]> response = client.send(listRequest, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                errors.errors++;
+            }
+            return response.statusCode();
+        } catch (HttpTimeoutException e) {
+            errors.errors++;
+            return -1;
+        }
+    }
+
+    // ログイン画面のCSRFトークンを取得してログインし、セッションをCookieに保持する
+    private void login(String baseUrl) throws Exception {
+        HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"").matcher(page.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("CSRFトークンを取得できません");
+        }
+        String form = "username=" + encode(BenchmarkApplication.employeeCode(0)) + "&password="
+                + encode(BenchmarkApplication.RAW_PASSWORD) + "&_csrf=" + encode(matcher.group(1));
+        HttpResponse<Void> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("ログインに失敗しました");
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // DataSourceをラップし、SQLの準備ごとに指定時間待機させる(DBの応答待ちの再現)
+    private static final class JdbcLatencyPostProcessor implements BeanPostProcessor {
+
+        private final long latencyMillis;
+
+        private JdbcLatencyPostProcessor(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (latencyMillis <= 0 || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return withLatency(super.getConnection());
+                }
+            };
+        }
+
+        private Connection withLatency(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare")) {
+                            Thread.sleep(latencyMillis);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.techacademy.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.techacademy.service.UserDetailService;
+
+// ログイン時の従業員情報の取得(キャッシュあり・なし)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserDetailServiceBenchmark {
+
+    // 従業員数
+    @Param("1000")
+    private int employees;
+
+    // 従業員1人あたりの日報数
+    @Param("10")
+    private int reportsPerEmployee;
+
+    private ConfigurableApplicationContext context;
+
+    private UserDetailService userDetailService;
+
+    private Cache cache;
+
+    private String code;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seed(context, employees, reportsPerEmployee);
+        userDetailService = context.getBean(UserDetailService.class);
+        cache = context.getBean(CacheManager.class).getCache(UserDetailService.CACHE_NAME);
+        code = BenchmarkApplication.employeeCode(employees / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsernameCached() {
+        return userDetailService.loadUserByUsername(code);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsernameUncached() {
+        cache.evict(code);
+        return userDetailService.loadUserByUsername(code);
+    }
+}
@@ -0,0 +1,72 @@
+package com.techacademy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// REST API(HTTP Basic)の認証
+// リクエストごとに送られるパスワードを毎回ハッシュ計算で照合しないよう、照合済みの組み合わせを短時間保持する
+// 保持するのは従業員番号・パスワードのHMAC(起動ごとの乱数の鍵)と照合したハッシュのみで、パスワード自体は保持しない
+// 従業員は毎回読み込むため、削除された場合は保持中でも認証できず、パスワードを変更した場合はハッシュが一致せず照合し直す
+public class ApiAuthenticationProvider extends DaoAuthenticationProvider {
+
+    // 照合済みの組み合わせ(従業員番号とパスワードのHMAC → 照合したハッシュ)
+    private final Cache<String, String> verifiedCredentials;
+
+    // パスワードのHMACの鍵
+    private final SecretKeySpec key;
+
+    public ApiAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+            Duration ttl, long maximumSize) {
+        super(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        this.verifiedCredentials = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+            UsernamePasswordAuthenticationToken authentication) throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            super.additionalAuthenticationChecks(userDetails, authentication);
+            return;
+        }
+        String cacheKey = cacheKey(userDetails.getUsername(), authentication.getCredentials().toString());
+        String verified = verifiedCredentials.getIfPresent(cacheKey);
+        if (verified != null && verified.equals(userDetails.getPassword())) {
+            return;
+        }
+        // 照合に失敗した場合は例外となり、保持しない
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        verifiedCredentials.put(cacheKey, userDetails.getPassword());
+    }
+
+    // 従業員番号とパスワードのHMAC
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            byte[] digest = mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+            return username + ":" + Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.techacademy;
+
+import java.util.ArrayList;
+
+import org.apache.coyote.ajp.AjpNio2Protocol;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.MissingReport;
+import com.techacademy.entity.MissingReportRun;
+import com.techacademy.entity.Report;
+import com.techacademy.entity.ReportMonthlySummary;
+import com.techacademy.repository.EmployeeListView;
+import com.techacademy.repository.ReportListView;
+import com.techacademy.repository.ReportMonthlySummaryView;
+import com.techacademy.service.ImportResult;
+import com.techacademy.service.MonthlySummary;
+import com.techacademy.service.UserDetail;
+
+// ネイティブイメージ(-Pnative native:compile)で実行時に必要となるリフレクション・リソース・シリアライズの情報
+// Spring AOTが自動で登録しないもの(テンプレートから参照する型、クラス名で生成するクラス、独自の場所のリソース等)を登録する
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    // テンプレートからプロパティを参照する型(Thymeleafの式はリフレクションでgetterを呼び出す)
+    // エンティティのgetter/setterはLombokがコンパイル時に生成するため、通常のメソッドとして登録すればよい
+    private static final Class<?>[] TEMPLATE_MODEL_TYPES = { Employee.class, Employee.Role.class, Report.class,
+            MissingReport.class, MissingReportRun.class, ReportMonthlySummary.class, MonthlySummary.class,
+            ImportResult.class, ImportResult.RowError.class, UserDetail.class };
+
+    // テンプレートからプロパティを参照する射影(インタフェース 実体はSpring Dataのプロキシ)
+    private static final Class<?>[] TEMPLATE_PROJECTION_TYPES = { EmployeeListView.class, ReportListView.class,
+            ReportMonthlySummaryView.class };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), TEMPLATE_MODEL_TYPES);
+        for (Class<?> type : TEMPLATE_PROJECTION_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        // テンプレートから ${@fragmentCache.render(...)} として呼び出す
+        hints.reflection().registerType(TemplateFragmentCache.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // AJPコネクタのプロトコルはTomcatがクラス名からリフレクションで生成する(TomcatConfiguration)
+        hints.reflection().registerType(AjpNio2Protocol.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // テンプレート・マイグレーション(db/migration/{vendor}・db/seed/{vendor})・2次キャッシュの設定
+        hints.resources().registerPattern("templates/**");
+        hints.resources().registerPattern("db/migration/**");
+        hints.resources().registerPattern("db/seed/**");
+        hints.resources().registerPattern("hibernate-jcache.conf");
+        hints.resources().registerResourceBundle("ValidationMessages");
+
+        // セッション(Spring Session JDBC)にJavaのシリアライズで保存する属性
+        // ログイン情報(SecurityContext)・CSRFトークン・更新日時(ReadWriteRoutingDataSource)
+        hints.serialization().registerType(SecurityContextImpl.class);
+        hints.serialization().registerType(UsernamePasswordAuthenticationToken.class);
+        hints.serialization().registerType(WebAuthenticationDetails.class);
+        hints.serialization().registerType(SimpleGrantedAuthority.class);
+        hints.serialization().registerType(UserDetail.class);
+        hints.serialization().registerType(Employee.Role.class);
+        hints.serialization().registerType(DefaultCsrfToken.class);
+        hints.serialization().registerType(Enum.class);
+        hints.serialization().registerType(Long.class);
+        hints.serialization().registerType(Number.class);
+        // 認証情報が保持する権限の一覧(Collections.unmodifiableListで包んだArrayList)
+        hints.serialization().registerType(TypeReference.of("java.util.Collections$UnmodifiableRandomAccessList"));
+        hints.serialization().registerType(TypeReference.of("java.util.Collections$UnmodifiableList"));
+        hints.serialization().registerType(TypeReference.of("java.util.Collections$UnmodifiableCollection"));
+        hints.serialization().registerType(ArrayList.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.techacademy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// パスワードのハッシュ化・照合を専用のスレッドプールで実行するPasswordEncoder
+// 同時に実行するハッシュ計算をスレッド数までに抑え、待ち行列があふれた場合は一定時間待ってから失敗させる
+// 結果も一定時間までしか待たず、停止後(destroy)に投入された計算は待たずに失敗させる
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    // 投入してから結果を待つ時間の上限(待ち行列で待つ時間を含む)
+    private final long resultTimeoutMillis;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, Duration queueTimeout,
+            Duration resultTimeout) {
+        this(delegate, poolSize, queueCapacity, queueTimeout, resultTimeout, "password-hash");
+    }
+
+    // threadNamePrefix: スレッド名の接頭辞(用途ごとに別のプールとする場合に区別する)
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, Duration queueTimeout,
+            Duration resultTimeout, String threadNamePrefix) {
+        this.delegate = delegate;
+        this.resultTimeoutMillis = resultTimeout.toMillis();
+
+        // スレッド数の指定がない場合はCPUコア数とする
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> {
+                    // 停止後は待ち行列に入れても実行されないため、待たずに失敗させる
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("password hashing pool is shut down");
+                    }
+                    // 待ち行列が空くまで呼び出し元を待たせる(バックプレッシャー)
+                    try {
+                        if (!pool.getQueue().offer(runnable, queueTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                            throw new RejectedExecutionException("password hashing queue is full");
+                        }
+                        // 待っている間に停止された場合は、待ち行列から取り除いて失敗させる
+                        if (pool.isShutdown() && pool.getQueue().remove(runnable)) {
+                            throw new RejectedExecutionException("password hashing pool is shut down");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("interrupted while waiting for password hashing queue", e);
+                    }
+                });
+        // 使われていないスレッドは終了させる
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // 複数のパスワードをスレッドプールで並列にハッシュ化する(一括登録用) 結果は引数と同じ順に返す
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>();
+        for (CharSequence rawPassword : rawPasswords) {
+            futures.add(submit(() -> delegate.encode(rawPassword)));
+        }
+        List<String> encodedPasswords = new ArrayList<>();
+        for (Future<String> future : futures) {
+            encodedPasswords.add(await(future));
+        }
+        return encodedPasswords;
+    }
+
+    // 同じ方式でハッシュ化する、別のスレッドプールのPasswordEncoderを作成する(ログインと処理を分ける場合)
+    // 作成したPasswordEncoderは呼び出し元で停止(destroy)する
+    public BoundedPasswordEncoder withPool(int poolSize, int queueCapacity, Duration queueTimeout,
+            Duration resultTimeout, String threadNamePrefix) {
+        return new BoundedPasswordEncoder(delegate, poolSize, queueCapacity, queueTimeout, resultTimeout,
+                threadNamePrefix);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    // スレッドプールで実行し、結果を待つ
+    private <T> T execute(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    // スレッドプールに投入する
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            // 混雑時はログイン失敗として扱う
+            throw new AuthenticationServiceException("Password hashing is overloaded", e);
+        }
+    }
+
+    // 結果を待つ(一定時間内に終わらない場合は計算を取り消して失敗させる)
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(resultTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new AuthenticationServiceException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
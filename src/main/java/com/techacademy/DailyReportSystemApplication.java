@@ -2,8 +2,14 @@ package com.techacademy;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
 public class DailyReportSystemApplication {
 
     public static void main(String[] args) {
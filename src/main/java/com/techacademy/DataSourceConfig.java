@@ -0,0 +1,80 @@
+package com.techacademy;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// 参照系をレプリカに振り分ける設定(app.datasource.replica.jdbc-urlを指定した場合のみ有効)
+// プライマリはspring.datasource.*、レプリカはapp.datasource.replica.*(HikariCPの設定名)で接続先・プールを設定する
+// 接続プールのメトリクスはhikaricp.*のpoolタグ(primary / replica)で、振り分け回数はapp.datasource.routingで確認できる
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.jdbc-url")
+public class DataSourceConfig {
+
+    /** プライマリ(更新・読み取り専用でないトランザクション) */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    /** レプリカ(読み取り専用トランザクション) */
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /** JPA・Flyway等が使うDataSource(接続の取得をSQLの実行時まで遅らせ、トランザクションの種類で振り分ける) */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${app.datasource.read-your-writes-window:5s}") Duration readYourWritesWindow,
+            MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryDataSource,
+                replicaDataSource, readYourWritesWindow, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * レプリケーションを構成しないローカル環境・テスト用に、レプリカにもマイグレーションを適用する
+     * (app.datasource.replica.migrate=true 本番ではレプリケーションで反映されるため指定しない)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.migrate", havingValue = "true")
+    public FlywayMigrationStrategy replicaMigrationStrategy(
+            @Qualifier("replicaDataSource") HikariDataSource replicaDataSource) {
+        return flyway -> {
+            flyway.migrate();
+            // レプリカのプールは読み取り専用のため、マイグレーションは別の接続で行う
+            Flyway.configure().configuration(flyway.getConfiguration())
+                    .dataSource(replicaDataSource.getJdbcUrl(), replicaDataSource.getUsername(),
+                            replicaDataSource.getPassword())
+                    .load().migrate();
+        };
+    }
+}
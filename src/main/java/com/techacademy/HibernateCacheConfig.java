@@ -0,0 +1,35 @@
+package com.techacademy;
+
+import java.net.URI;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+// Hibernate 2次キャッシュ(JCache / Caffeine)のCacheManager
+// 従業員・日報のリージョン(employee / report)はこのCacheManagerから取得する 論理削除の確認はfindActiveByIdで行う
+// hibernate.javax.cache.uriで設定ファイルを指定すると、Hibernateがクラスパス上のURL(実行可能JARではjar:、ネイティブイメージではresource:)
+// に変換してから渡すため、Caffeineが読み込めずリージョンの設定がない状態となる
+// Caffeineが直接クラスパスから読み込むclasspath:のURIでCacheManagerを作成し、Hibernateに渡す
+@Configuration
+public class HibernateCacheConfig {
+
+    // リージョンごとの件数上限・有効期限の設定
+    private static final URI CONFIG_URI = URI.create("classpath:hibernate-jcache.conf");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(CONFIG_URI, HibernateCacheConfig.class.getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+}
@@ -0,0 +1,122 @@
+package com.techacademy;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpSession;
+
+// 読み取り専用トランザクション(@Transactional(readOnly = true))の接続をレプリカに、それ以外をプライマリに振り分けるDataSource
+// 接続はトランザクションの開始時ではなく最初のSQL実行時に取得する必要があるため、LazyConnectionDataSourceProxyで包んで使う
+// 更新したセッションでは、レプリカへの反映を待たずに更新結果を表示できるよう一定時間プライマリから読み込む
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    public static final String REPLICA = "replica";
+
+    // セッションに保持する最終更新日時(エポックミリ秒)の属性名
+    static final String LAST_WRITE_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".lastWrite";
+
+    // 同一トランザクションで最終更新日時の記録を重複して登録しないための目印
+    private final Object writeMarker = new Object();
+
+    // 更新後にプライマリから読み込む時間(レプリケーションの遅延より長くする)
+    private final long readYourWritesMillis;
+
+    private final Counter primaryCounter;
+
+    private final Counter replicaCounter;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow,
+            MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readYourWritesMillis = readYourWritesWindow.toMillis();
+        this.primaryCounter = routingCounter(meterRegistry, PRIMARY);
+        this.replicaCounter = routingCounter(meterRegistry, REPLICA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            primaryCounter.increment();
+            return PRIMARY;
+        }
+        if (isWithinReadYourWritesWindow()) {
+            primaryCounter.increment();
+            return PRIMARY;
+        }
+        replicaCounter.increment();
+        return REPLICA;
+    }
+
+    // 更新用トランザクションのコミット後、セッションに最終更新日時を記録する
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(writeMarker)) {
+            return;
+        }
+        HttpSession session = currentSession();
+        if (session == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writeMarker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    session.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+                } catch (IllegalStateException e) {
+                    // 更新と同じリクエストでセッションが無効化された場合は記録しない
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeMarker);
+            }
+        });
+    }
+
+    // 同じセッションで更新してから一定時間以内であればtrue
+    private boolean isWithinReadYourWritesWindow() {
+        HttpSession session = currentSession();
+        if (session == null) {
+            return false;
+        }
+        try {
+            Object lastWrite = session.getAttribute(LAST_WRITE_ATTRIBUTE);
+            return lastWrite instanceof Long millis && System.currentTimeMillis() - millis < readYourWritesMillis;
+        } catch (IllegalStateException e) {
+            // 無効化済みのセッション(ログアウト後)
+            return false;
+        }
+    }
+
+    // 処理中のリクエストのセッション(リクエスト外のスケジュール処理等やセッションのないリクエストではnull)
+    private static HttpSession currentSession() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getSession(false);
+        }
+        return null;
+    }
+
+    // 振り分け先ごとの接続取得回数
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("app.datasource.routing").description("振り分け先ごとの接続取得回数")
+                .tag("target", target).register(meterRegistry);
+    }
+}
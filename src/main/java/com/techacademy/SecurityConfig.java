@@ -1,15 +1,66 @@
 package com.techacademy;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.ClassUtils;
 
 @Configuration
 public class SecurityConfig {
+
+    // Argon2PasswordEncoderが使用するBouncy Castleのクラス
+    private static final String BOUNCY_CASTLE_ARGON2 = "org.bouncycastle.crypto.params.Argon2Parameters";
+    /**
+     * REST API(/api/**)の認証・認可設定
+     * 従業員番号・パスワードをリクエストごとにHTTP Basicで送る(セッションを作らないため、Cookieを使わずCSRF対策も不要)
+     * 照合済みのパスワードは一定時間保持し、照合はログインとは別のスレッドプールで行う(ApiAuthenticationProvider)
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, UserDetailsService userDetailsService,
+            @Value("${app.password.encoder:bcrypt}") String encoder,
+            @Value("${app.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${app.api.password-pool-size:2}") int poolSize,
+            @Value("${app.api.password-queue-capacity:50}") int queueCapacity,
+            @Value("${app.password.queue-timeout:2s}") Duration queueTimeout,
+            @Value("${app.password.result-timeout:10s}") Duration resultTimeout,
+            @Value("${app.api.credentials-cache-ttl:1m}") Duration credentialsCacheTtl,
+            @Value("${app.api.credentials-cache-size:10000}") long credentialsCacheSize) throws Exception {
+        // ログイン用のPasswordEncoder(Bean)とは別に作成する(PasswordEncoderのBeanが複数あるとログインの設定に使われなくなる)
+        BoundedPasswordEncoder apiPasswordEncoder = new BoundedPasswordEncoder(
+                createPasswordEncoder(encoder, bcryptStrength), poolSize, queueCapacity, queueTimeout,
+                resultTimeout, "api-password-hash");
+        ApiAuthenticationProvider provider = new ApiAuthenticationProvider(userDetailsService, apiPasswordEncoder,
+                credentialsCacheTtl, credentialsCacheSize);
+
+        http.securityMatcher("/api/**")
+                .authenticationManager(new ProviderManager(provider)) // 認証失敗時にログイン用の認証で照合し直さない
+                .httpBasic(Customizer.withDefaults()) // 未認証の場合はログイン画面へのリダイレクトではなく401を返す
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth.anyRequest().authenticated());
+
+        return http.build();
+    }
+
     /** 認証・認可設定 */
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -21,14 +72,49 @@ public class SecurityConfig {
         ).logout(logout -> logout.logoutSuccessUrl("/login") // ログアウト後のリダイレクト先
         ).authorizeHttpRequests(
                 auth -> auth.requestMatchers(PathRequest.toStaticResources().atCommonLocations()).permitAll() // css等は未ログインでアクセス可
-                        .requestMatchers("/employees/**").hasAnyAuthority("ADMIN").anyRequest().authenticated()); // その他はログイン必要
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll() // 死活監視・メトリクス収集は未ログインでアクセス可(管理用エンドポイントはローカルの別ポートのみで公開)
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasAnyAuthority("ADMIN") // その他の管理用エンドポイント(キャッシュの破棄等)は管理者のみ
+                        .requestMatchers("/employees/**", "/reports/export", "/reports/import", "/reports/summary", "/reports/missing").hasAnyAuthority("ADMIN") // 従業員管理・日報の一括出力・一括登録・集計・未提出は管理者のみ
+                        .anyRequest().authenticated()); // その他はログイン必要
 
         return http.build();
     }
 
-    /** ハッシュ化したパスワードの比較に使用する */
+    /** ハッシュ化したパスワードの比較に使用する(計算は専用スレッドプールで実行) */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${app.password.encoder:bcrypt}") String encoder,
+            @Value("${app.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${app.password.pool-size:0}") int poolSize,
+            @Value("${app.password.queue-capacity:100}") int queueCapacity,
+            @Value("${app.password.queue-timeout:2s}") Duration queueTimeout,
+            @Value("${app.password.result-timeout:10s}") Duration resultTimeout) {
+        return new BoundedPasswordEncoder(createPasswordEncoder(encoder, bcryptStrength), poolSize, queueCapacity,
+                queueTimeout, resultTimeout);
+    }
+
+    /**
+     * 指定した方式でハッシュ化するDelegatingPasswordEncoderを生成する
+     * 照合は接頭辞({bcrypt}等)で方式を判定し、接頭辞のない既存のハッシュはBCryptとして照合する
+     * Argon2はBouncy Castle(-Pargon2でビルドした場合のみ含まれる)がある場合のみ使用できる
+     */
+    public static PasswordEncoder createPasswordEncoder(String encoder, int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (ClassUtils.isPresent(BOUNCY_CASTLE_ARGON2, SecurityConfig.class.getClassLoader())) {
+            encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+        // 使用できない方式を指定した場合は起動時に失敗させる(ハッシュ化の都度失敗させない)
+        if (!encoders.containsKey(encoder)) {
+            throw new IllegalStateException("app.password.encoder=" + encoder + " is not available"
+                    + ("argon2".equals(encoder) ? " (requires org.bouncycastle:bcprov-jdk18on; build with -Pargon2)"
+                            : " (use bcrypt, pbkdf2 or argon2)"));
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoder, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.techacademy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.context.WebContext;
+
+// 共通ヘッダ・サイドメニュー等、全画面で同じ内容になるフラグメントの描画結果をロールごとに保持する
+// テンプレートからは ${@fragmentCache.render(#ctx, 'common/side', 'menu')} として呼び出し、th:utextで出力する
+// CSRFトークン等、リクエストごとに異なる内容を含む部分は対象にしないこと
+@Component("fragmentCache")
+public class TemplateFragmentCache {
+
+    private final ITemplateEngine templateEngine;
+
+    // テンプレートのキャッシュが無効な場合(devtools)はテンプレートの変更がすぐ反映されるよう毎回描画する
+    private final boolean enabled;
+
+    // テンプレート名・フラグメント名・ロールごとの描画結果(組み合わせは数件のため件数の上限は設けない)
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TemplateFragmentCache(ITemplateEngine templateEngine,
+            @Value("${app.template.fragment-cache.enabled:${spring.thymeleaf.cache:true}}") boolean enabled) {
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+    }
+
+    // フラグメントを描画する(ログイン中の従業員のロールで描画済みであれば保持している結果を返す)
+    public String render(ITemplateContext context, String template, String fragment) {
+        if (!enabled) {
+            return process(context, template, fragment);
+        }
+        String key = template + "::" + fragment + "::" + roles();
+        // 描画中に別のフラグメントを呼び出す場合があるため、computeIfAbsentは使わない
+        String html = cache.get(key);
+        if (html == null) {
+            html = process(context, template, fragment);
+            cache.put(key, html);
+        }
+        return html;
+    }
+
+    // 呼び出し元の画面と同じリクエスト・変数でフラグメントのみを描画する
+    private String process(ITemplateContext context, String template, String fragment) {
+        Map<String, Object> variables = new HashMap<>();
+        for (String name : context.getVariableNames()) {
+            variables.put(name, context.getVariable(name));
+        }
+        IContext fragmentContext = context instanceof IWebContext webContext
+                ? new WebContext(webContext.getExchange(), context.getLocale(), variables)
+                : new Context(context.getLocale(), variables);
+        return templateEngine.process(template, Set.of(fragment), fragmentContext);
+    }
+
+    // ログイン中の従業員の権限(未ログインの場合は"anonymous")
+    private static String roles() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "anonymous";
+        }
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).sorted()
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,50 @@
+package com.techacademy;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// テンプレートの描画時間をテンプレート名ごとに計測する
+// postHandle(描画前)からafterCompletion(描画後)までの時間をthymeleaf.renderとして記録する
+public class TemplateRenderMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = TemplateRenderMetricsInterceptor.class.getName() + ".start";
+
+    private static final String TEMPLATE_ATTRIBUTE = TemplateRenderMetricsInterceptor.class.getName() + ".template";
+
+    private final MeterRegistry meterRegistry;
+
+    public TemplateRenderMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+            ModelAndView modelAndView) {
+        // リダイレクト等、テンプレートを描画しない場合は計測しない
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+        request.setAttribute(TEMPLATE_ATTRIBUTE, modelAndView.getViewName());
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        Timer.builder("thymeleaf.render").description("Thymeleafテンプレートの描画時間")
+                .tag("template", (String) request.getAttribute(TEMPLATE_ATTRIBUTE))
+                .register(meterRegistry).record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+    }
+}
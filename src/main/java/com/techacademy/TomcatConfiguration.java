@@ -2,13 +2,32 @@ package com.techacademy; // ご自身の環境に合わせてください
 
 import org.apache.catalina.connector.Connector;
 import org.apache.coyote.ajp.AjpNio2Protocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
 
+    private final Environment environment;
+
+    private final int ajpPort;
+
+    private final int maxConnections;
+
+    @Autowired
+    public TomcatConfiguration(Environment environment, @Value("${app.ajp.port:8009}") int ajpPort,
+            @Value("${server.tomcat.max-connections:8192}") int maxConnections) {
+        this.environment = environment;
+        this.ajpPort = ajpPort;
+        this.maxConnections = maxConnections;
+    }
+
     @Override
     public void customize(TomcatServletWebServerFactory factory) {
         // Tomcatとの通信手段にAJPを追加
@@ -20,13 +39,25 @@ public class TomcatConfiguration implements WebServerFactoryCustomizer<TomcatSer
         Connector connector = new Connector("org.apache.coyote.ajp.AjpNio2Protocol");
 
         // AJPの通信で8009番ポートを使うための指定
-        connector.setPort(8009);
+        connector.setPort(ajpPort);
 
         // secretという保護機能を利用しないようにする設定
         AjpNio2Protocol protocol = (AjpNio2Protocol) connector.getProtocolHandler();
         protocol.setSecretRequired(false);
 
+        // 応答の圧縮(server.compression)はHTTPコネクタのみの機能で、AJPには圧縮の設定がない
+        // AJPで接続する場合はフロントのWebサーバー(Apache httpdのmod_deflate等)で圧縮する
+
+        // 同時接続数の上限はHTTPコネクタと揃える
+        protocol.setMaxConnections(maxConnections);
+
+        // 仮想スレッドが有効な場合はAJPのリクエストも仮想スレッドで処理する
+        // (HTTPコネクタはspring.threads.virtual.enabledによりSpring Bootが設定するが、追加したコネクタには適用されない)
+        if (Threading.VIRTUAL.isActive(environment)) {
+            protocol.setExecutor(new VirtualThreadExecutor("tomcat-ajp-handler-"));
+        }
+
         return connector;
     }
 
-}
\ No newline at end of file
+}
@@ -18,6 +18,16 @@ public enum ErrorKinds {
     LOGINCHECK_ERROR,
     // 日付チェックエラー
     DATECHECK_ERROR,
+    // 入力値チェックエラー(一括登録)
+    VALIDATION_ERROR,
+    // 楽観ロックエラー(他の利用者が先に更新済み)
+    OPTIMISTIC_LOCK_ERROR,
+    // 存在チェックエラー(削除済み・存在しないID)
+    NOT_FOUND_ERROR,
+    // 混雑エラー(一括登録のパスワードのハッシュ計算が待ち行列の上限・待ち時間を超過)
+    BUSY_ERROR,
+    // 混雑エラー(従業員の登録・更新のパスワードのハッシュ計算が待ち行列の上限・待ち時間を超過)
+    PASSWORD_BUSY_ERROR,
     // チェックOK
     CHECK_OK,
     // 正常終了
@@ -32,6 +32,18 @@ public class ErrorMessage {
                     new ArrayList<String>(Arrays.asList("deleteError", "ログイン中の従業員を削除することは出来ません")));
             // 同一日付チェック用エラーメッセージ
             put(ErrorKinds.DATECHECK_ERROR, new ArrayList<String>(Arrays.asList("reportDateError", "既に登録されている日付です")));
+            // 一括登録の入力値チェック用エラーメッセージ
+            put(ErrorKinds.VALIDATION_ERROR, new ArrayList<String>(Arrays.asList("importError", "入力内容に誤りがあります")));
+            // 楽観ロック(同時更新)チェック用エラーメッセージ
+            put(ErrorKinds.OPTIMISTIC_LOCK_ERROR, new ArrayList<String>(
+                    Arrays.asList("versionError", "他のユーザーが先に更新しました。最新の内容を確認して再度更新してください")));
+            // 存在チェック用エラーメッセージ
+            put(ErrorKinds.NOT_FOUND_ERROR, new ArrayList<String>(Arrays.asList("notFoundError", "対象のデータが見つかりません")));
+            // 混雑チェック用エラーメッセージ
+            put(ErrorKinds.BUSY_ERROR, new ArrayList<String>(
+                    Arrays.asList("importError", "処理が混雑しているため登録できませんでした。時間をおいて再度登録してください")));
+            put(ErrorKinds.PASSWORD_BUSY_ERROR, new ArrayList<String>(
+                    Arrays.asList("passwordError", "処理が混雑しているため登録できませんでした。時間をおいて再度登録してください")));
         }
     };
 
@@ -0,0 +1,23 @@
+package com.techacademy.controller;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.constants.ErrorMessage;
+
+// APIのエラー応答
+// error: エラーの種類(ErrorKindsの名前) / field: 画面と同じエラーの名称 / message: エラーメッセージ
+// fields: 入力チェックエラーの項目ごとのメッセージ
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiError(String error, String field, String message, Map<String, String> fields) {
+
+    public static ApiError of(ErrorKinds errorKinds) {
+        return of(errorKinds, null);
+    }
+
+    public static ApiError of(ErrorKinds errorKinds, Map<String, String> fields) {
+        return new ApiError(errorKinds.name(), ErrorMessage.getErrorName(errorKinds),
+                ErrorMessage.getErrorValue(errorKinds), fields);
+    }
+}
@@ -0,0 +1,35 @@
+package com.techacademy.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+// 画面の条件付きGET(ETag / Last-Modified)
+// 表示内容の版(バージョン・更新日時等)が前回の表示から変わっていなければ、データの取得・描画を行わずに304を返す
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    // ブラウザのキャッシュが最新であればtrue(呼び出し元はnullを返して処理を終える)
+    // 画面にはログイン中の従業員ごとの内容(権限によるリンク・CSRFトークン)を含むため、セッションごとに異なるETagとし、
+    // 共有キャッシュには保存させず、表示のたびにブラウザから確認させる
+    static boolean checkNotModified(WebRequest request, String version, LocalDateTime lastModified) {
+        String etag = "\"" + DigestUtils.md5DigestAsHex(
+                (request.getSessionId() + ":" + version).getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (request instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        if (lastModified == null) {
+            return request.checkNotModified(etag);
+        }
+        return request.checkNotModified(etag, lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}
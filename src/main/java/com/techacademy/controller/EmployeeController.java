@@ -1,7 +1,10 @@
 package com.techacademy.controller;
 
+import java.io.IOException;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -12,34 +15,43 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.micrometer.core.annotation.Timed;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
 
 import com.techacademy.entity.Employee;
 import com.techacademy.service.EmployeeService;
+import com.techacademy.service.ImportService;
 import com.techacademy.service.ReportService;
 import com.techacademy.service.UserDetail;
 
 @Controller
+@Timed(value = "app.controller", description = "コントローラの処理時間")
 @RequestMapping("employees")
 public class EmployeeController {
 
     private final EmployeeService employeeService;
     private final ReportService reportService;
+    private final ImportService importService;
 
     @Autowired
-    public EmployeeController(EmployeeService employeeService, ReportService reportService) {
+    public EmployeeController(EmployeeService employeeService, ReportService reportService,
+            ImportService importService) {
         this.employeeService = employeeService;
         this.reportService = reportService;
+        this.importService = importService;
     }
 
     // 従業員一覧画面
     @GetMapping
     public String list(Model model) {
 
-        model.addAttribute("listSize", employeeService.findAll().size());
-        model.addAttribute("employeeList", employeeService.findAll());
+        model.addAttribute("listSize", employeeService.count());
+        model.addAttribute("employeeList", employeeService.findAllListViews());
 
         return "employees/list";
     }
@@ -97,7 +109,23 @@ public class EmployeeController {
             }
         }
         // 従業員 登録
-        employeeService.update(employee, code); // employee ユーザーが入力したデータ
+        // 他の利用者が同時に更新した場合はバージョンの不一致(楽観ロック)となるためtry~catchで対応
+        ErrorKinds result;
+        try {
+            result = employeeService.update(employee, code); // employee ユーザーが入力したデータ
+        } catch (OptimisticLockingFailureException e) {
+            result = ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
+        if (ErrorKinds.OPTIMISTIC_LOCK_ERROR == result) {
+            // 最新の内容を表示し直す
+            model.addAttribute(ErrorMessage.getErrorName(result), ErrorMessage.getErrorValue(result));
+            return edit(code, model, employee);
+        }
+        // パスワードのハッシュ計算が混雑している場合
+        if (ErrorKinds.PASSWORD_BUSY_ERROR == result) {
+            model.addAttribute(ErrorMessage.getErrorName(result), ErrorMessage.getErrorValue(result));
+            return edit(code, model, employee);
+        }
         // 一覧画面にリダイレクト
         return "redirect:/employees";
     }
@@ -151,6 +179,22 @@ public class EmployeeController {
         return "redirect:/employees";
     }
 
+    // 従業員一括登録画面
+    @GetMapping(value = "/import")
+    public String importForm() {
+
+        return "employees/import";
+    }
+
+    // 従業員一括登録処理(CSV)
+    @PostMapping(value = "/import")
+    public String importCsv(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+
+        // 入力に誤りのある行は登録せず、行ごとのエラーとして結果画面に表示する
+        model.addAttribute("result", importService.importEmployees(file.getInputStream()));
+        return "employees/import";
+    }
+
     // 従業員削除処理
     @PostMapping(value = "/{code}/delete")
     public String delete(@PathVariable String code, @AuthenticationPrincipal UserDetail userDetail, Model model) {
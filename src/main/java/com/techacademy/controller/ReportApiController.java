@@ -0,0 +1,305 @@
+package com.techacademy.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportListView;
+import com.techacademy.service.ReportService;
+import com.techacademy.service.UserDetail;
+
+import io.micrometer.core.annotation.Timed;
+
+// 日報のREST API(モバイル・BI向け) 認証はHTTP Basic(セッションを作らない SecurityConfig参照)
+// 処理はReportServiceを画面と共用し、ErrorKindsのエラーはApiErrorとして返す
+@RestController
+@Timed(value = "app.controller", description = "コントローラの処理時間")
+@RequestMapping("api/reports")
+public class ReportApiController {
+
+    // 一覧の1回あたりの最大件数
+    static final int MAX_LIMIT = 1000;
+
+    // 一覧で指定できる項目(fields 省略時はすべて) 内容は先頭50文字のみ(全文は詳細で取得する)
+    static final Set<String> LIST_FIELDS = Set.of("id", "reportDate", "employeeCode", "employeeName", "title",
+            "contentPreview");
+
+    private final ReportService reportService;
+    private final JsonFactory jsonFactory;
+
+    @Autowired
+    public ReportApiController(ReportService reportService, ObjectMapper objectMapper) {
+        this.reportService = reportService;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    // 日報一覧(日付・IDの降順)
+    // cursor: 前回の応答のnextCursor(省略時は先頭から) / limit: 件数 / fields: 出力する項目(カンマ区切り)
+    // 次のページがなければnextCursorはnull
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> list(@RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", defaultValue = "" + ReportService.PAGE_SIZE) int limit,
+            @RequestParam(name = "fields", required = false) String fields) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (limit < 1 || limit > MAX_LIMIT) {
+            errors.put("limit", "1以上" + MAX_LIMIT + "以下で指定してください");
+        }
+        Set<String> selected = parseFields(fields, errors);
+        Cursor position = cursor == null ? null : Cursor.decode(cursor);
+        if (cursor != null && position == null) {
+            errors.put("cursor", "不正なカーソルです");
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidParameterException(errors);
+        }
+
+        // 1件多く取得して次ページの有無を判定する(件数は数えない)
+        List<ReportListView> items = position == null ? reportService.findFirstPage(limit + 1)
+                : reportService.findNextPage(position.reportDate(), position.id(), limit + 1);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            ReportListView last = items.get(limit - 1);
+            nextCursor = new Cursor(last.getReportDate(), last.getId()).encode();
+        }
+
+        // 射影から直接JSONを書き出す(応答用のオブジェクト・ツリーを作らない)
+        List<ReportListView> page = items;
+        String next = nextCursor;
+        StreamingResponseBody body = outputStream -> writeList(outputStream, page, selected, next);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 日報詳細
+    @GetMapping("/{id}")
+    public ResponseEntity<?> detail(@PathVariable("id") Integer id) {
+        Report report = reportService.findWithEmployeeById(id);
+        if (report == null) {
+            return error(ErrorKinds.NOT_FOUND_ERROR);
+        }
+        return ResponseEntity.ok(ReportDetail.of(report));
+    }
+
+    // 日報登録(ログイン中の従業員の日報とする)
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody @Validated ReportRequest request,
+            @AuthenticationPrincipal UserDetail userDetail) {
+        Report report = request.toReport();
+        report.setVersion(null);
+        ErrorKinds result;
+        // 同一日付の日報が同時に登録された場合は一意制約違反となる
+        try {
+            result = reportService.save(report, userDetail);
+        } catch (DataIntegrityViolationException e) {
+            result = ErrorKinds.DATECHECK_ERROR;
+        }
+        if (result != ErrorKinds.SUCCESS) {
+            return error(result);
+        }
+        // セッションがなく更新後の一定時間プライマリから読み込む対象とならないため、明示的にプライマリから読み込む
+        return ResponseEntity.created(URI.create("/api/reports/" + report.getId()))
+                .body(ReportDetail.of(reportService.findWithEmployeeByIdFromPrimary(report.getId())));
+    }
+
+    // 日報更新(取得時のバージョンが必要)
+    @PutMapping("/{id}")
+    public ResponseEntity<?> update(@PathVariable("id") Integer id, @RequestBody @Validated ReportRequest request,
+            @AuthenticationPrincipal UserDetail userDetail) {
+        if (request.version() == null) {
+            return ResponseEntity.badRequest()
+                    .body(ApiError.of(ErrorKinds.VALIDATION_ERROR, Map.of("version", "値を入力してください")));
+        }
+        ErrorKinds result;
+        // 存在の確認は更新と同じトランザクション(プライマリ)で行い、存在しない場合はNOT_FOUND_ERRORとなる
+        // 同一日付の日報との重複は一意制約違反、同じ日報の同時更新はバージョンの不一致となる
+        try {
+            result = reportService.update(request.toReport(), id, userDetail);
+        } catch (DataIntegrityViolationException e) {
+            result = ErrorKinds.DATECHECK_ERROR;
+        } catch (OptimisticLockingFailureException e) {
+            result = ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
+        if (result != ErrorKinds.SUCCESS) {
+            return error(result);
+        }
+        return ResponseEntity.ok(ReportDetail.of(reportService.findWithEmployeeByIdFromPrimary(id)));
+    }
+
+    // 日報削除
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> delete(@PathVariable("id") Integer id) {
+        // 存在しない場合はNOT_FOUND_ERRORとなる
+        ErrorKinds result = reportService.delete(id);
+        if (result != ErrorKinds.SUCCESS) {
+            return error(result);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // 入力チェックエラー(項目ごとのメッセージを返す)
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException e) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError fieldError : e.getBindingResult().getFieldErrors()) {
+            errors.putIfAbsent(fieldError.getField(), fieldError.getDefaultMessage());
+        }
+        return ResponseEntity.badRequest().body(ApiError.of(ErrorKinds.VALIDATION_ERROR, errors));
+    }
+
+    // 一覧の条件の誤り
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<ApiError> handleInvalidParameter(InvalidParameterException e) {
+        return ResponseEntity.badRequest().body(ApiError.of(ErrorKinds.VALIDATION_ERROR, e.fields));
+    }
+
+    // JSON・日付・IDの形式の誤り
+    @ExceptionHandler({ HttpMessageNotReadableException.class, MethodArgumentTypeMismatchException.class })
+    public ResponseEntity<ApiError> handleUnreadable(Exception e) {
+        return ResponseEntity.badRequest().body(ApiError.of(ErrorKinds.VALIDATION_ERROR));
+    }
+
+    // エラーの種類に応じたステータスでエラーを返す
+    private static ResponseEntity<ApiError> error(ErrorKinds errorKinds) {
+        HttpStatus status = switch (errorKinds) {
+        case NOT_FOUND_ERROR -> HttpStatus.NOT_FOUND;
+        case DATECHECK_ERROR, OPTIMISTIC_LOCK_ERROR -> HttpStatus.CONFLICT;
+        default -> HttpStatus.BAD_REQUEST;
+        };
+        return ResponseEntity.status(status).body(ApiError.of(errorKinds));
+    }
+
+    // 出力する項目(指定できない項目があればエラーに追加する)
+    private static Set<String> parseFields(String fields, Map<String, String> errors) {
+        if (fields == null || fields.isBlank()) {
+            return LIST_FIELDS;
+        }
+        Set<String> selected = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!LIST_FIELDS.contains(name)) {
+                errors.put("fields", "指定できない項目です: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    // 一覧のJSONを書き出す {"items":[{...}],"nextCursor":"..."}
+    private void writeList(OutputStream outputStream, List<ReportListView> items, Set<String> fields,
+            String nextCursor) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            for (ReportListView item : items) {
+                generator.writeStartObject();
+                if (fields.contains("id")) {
+                    generator.writeNumberField("id", item.getId());
+                }
+                if (fields.contains("reportDate")) {
+                    generator.writeStringField("reportDate", item.getReportDate().toString());
+                }
+                if (fields.contains("employeeCode")) {
+                    generator.writeStringField("employeeCode", item.getEmployeeCode());
+                }
+                if (fields.contains("employeeName")) {
+                    generator.writeStringField("employeeName", item.getEmployeeName());
+                }
+                if (fields.contains("title")) {
+                    generator.writeStringField("title", item.getTitle());
+                }
+                if (fields.contains("contentPreview")) {
+                    generator.writeStringField("contentPreview", item.getContent());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", nextCursor);
+            generator.writeEndObject();
+        }
+    }
+
+    // 日報詳細の応答
+    public record ReportDetail(Integer id, LocalDate reportDate, String employeeCode, String employeeName,
+            String title, String content, Integer version, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static ReportDetail of(Report report) {
+            return new ReportDetail(report.getId(), report.getReportDate(), report.getEmployee().getCode(),
+                    report.getEmployee().getName(), report.getTitle(), report.getContent(), report.getVersion(),
+                    report.getCreatedAt(), report.getUpdatedAt());
+        }
+    }
+
+    // 一覧の条件の入力チェックエラー(一覧の応答はStreamingResponseBodyのため、エラーは例外としてhandleInvalidParameterで返す)
+    static class InvalidParameterException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        // 項目ごとのメッセージ
+        private final Map<String, String> fields;
+
+        InvalidParameterException(Map<String, String> fields) {
+            super(fields.toString());
+            this.fields = fields;
+        }
+    }
+
+    // 一覧の位置(最後に返した日報の日付・ID) クライアントには中身を意識させないようBase64URLで符号化して渡す
+    record Cursor(LocalDate reportDate, Integer id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((reportDate + ":" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        // 復号する(形式が不正な場合はnull)
+        static Cursor decode(String value) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+                if (parts.length != 2) {
+                    return null;
+                }
+                return new Cursor(LocalDate.parse(parts[0]), Integer.valueOf(parts[1]));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -1,6 +1,22 @@
 package com.techacademy.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,44 +27,218 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import io.micrometer.core.annotation.Timed;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.constants.ErrorMessage;
-import com.techacademy.entity.Employee;
+import com.techacademy.entity.MissingReportRun;
 import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportListStamp;
+import com.techacademy.repository.ReportListView;
+import com.techacademy.repository.ReportStamp;
+import com.techacademy.service.ImportService;
+import com.techacademy.service.MissingReportService;
+import com.techacademy.service.ReportExportService;
 import com.techacademy.service.ReportService;
+import com.techacademy.service.ReportSummaryService;
 import com.techacademy.service.UserDetail;
 
 @Controller
+@Timed(value = "app.controller", description = "コントローラの処理時間")
 @RequestMapping("reports")
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportExportService reportExportService;
+    private final ImportService importService;
+    private final ReportSummaryService reportSummaryService;
+    private final MissingReportService missingReportService;
 
     @Autowired
-    public ReportController(ReportService reportService) { // @Autowired アノテーションを使って、ReportController クラスのコンストラクタに
+    public ReportController(ReportService reportService, ReportExportService reportExportService,
+            ImportService importService, ReportSummaryService reportSummaryService,
+            MissingReportService missingReportService) { // @Autowired アノテーションを使って、ReportController クラスのコンストラクタに
                                                            // ReportService のインスタンスを注入しています。
         this.reportService = reportService;
+        this.reportExportService = reportExportService;
+        this.importService = importService;
+        this.reportSummaryService = reportSummaryService;
+        this.missingReportService = missingReportService;
     }
 
     // 日報一覧画面
     @GetMapping
-    public String list(Model model) {
-        // reportService.findAll()メソッドを呼び出して、すべてのレポートを取得します。そのリストのサイズを"listSize"という名前でモデルに追加します。
-        model.addAttribute("listSize", reportService.findAll().size());
+    public String list(@RequestParam(name = "date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            @RequestParam(name = "id", required = false) Integer id,
+            @RequestParam(name = "dir", defaultValue = "next") String dir,
+            @RequestParam(name = "page", defaultValue = "1") int page, Model model, WebRequest webRequest) {
+        // 件数と最終更新日時を1回のクエリで取得し、前回の表示から変わっていなければ一覧を取得・描画せずに304を返します。
+        ReportListStamp stamp = reportService.findListStamp();
+        if (ConditionalGet.checkNotModified(webRequest,
+                stamp.getCount() + ":" + stamp.getLastUpdatedAt() + ":" + stamp.getEmployeeLastUpdatedAt(), null)) {
+            return null;
+        }
 
-        // 再度reportService.findAll()メソッドを呼び出して、すべてのレポートを取得します。そのリストを"reportsList"という名前でモデルに追加します。
-        model.addAttribute("reportsList", reportService.findAll());
+        // 件数は"listSize"という名前でモデルに追加します。
+        long listSize = stamp.getCount();
+        model.addAttribute("listSize", listSize);
+
+        // 表示中ページの端の日報(日付, ID)を起点に、1ページ分より1件多く取得します(キーセットページング)。
+        // 前後のページの有無は1件多く取得できたかと起点の有無で判定し、ページ番号は表示にのみ使います。
+        int size = ReportService.PAGE_SIZE;
+        List<ReportListView> reportsList = List.of();
+        boolean hasPrev = false;
+        boolean hasNext = false;
+        if (date != null && id != null && "prev".equals(dir)) {
+            reportsList = reportService.findPreviousPage(date, id, size + 1);
+            hasPrev = reportsList.size() > size;
+            if (hasPrev) {
+                reportsList = reportsList.subList(1, reportsList.size());
+            }
+            hasNext = true;
+        } else if (date != null && id != null) {
+            reportsList = reportService.findNextPage(date, id, size + 1);
+            hasNext = reportsList.size() > size;
+            if (hasNext) {
+                reportsList = reportsList.subList(0, size);
+            }
+            hasPrev = true;
+        }
+        // 起点の指定がない場合、前へ戻って先頭に達した場合、起点より後ろに日報がない場合は先頭ページを表示します。
+        if (!hasPrev || reportsList.isEmpty()) {
+            reportsList = reportService.findFirstPage(size + 1);
+            hasPrev = false;
+            hasNext = reportsList.size() > size;
+            if (hasNext) {
+                reportsList = reportsList.subList(0, size);
+            }
+        }
+        model.addAttribute("reportsList", reportsList);
+
+        // ページ移動用の情報をモデルに追加します(ページ番号は件数から求めた範囲に収めて表示します)。
+        long lastPage = Math.max(1, (listSize + size - 1) / size);
+        page = hasPrev ? (int) Math.max(2, Math.min(page, lastPage)) : 1;
+        model.addAttribute("page", page);
+        model.addAttribute("lastPage", Math.max(lastPage, page));
+        model.addAttribute("hasPrev", hasPrev);
+        model.addAttribute("hasNext", hasNext);
 
         // 日報一覧画面に遷移
         return "reports/list"; // "reports/list"という名前のビュー（テンプレート）を返します。ビューは、listSizeとreportsListのデータを使用して、ユーザーにレポートの数と詳細を表示します。
     }
 
+    // 日報検索画面
+    @GetMapping("/search")
+    public String search(@RequestParam(name = "q", defaultValue = "") String keyword,
+            @RequestParam(name = "page", defaultValue = "1") int page, Model model) {
+        // タイトル・内容の全文検索の結果を、関連度の高い順に1ページ分取得します。
+        page = Math.max(page, 1);
+        Slice<ReportListView> result = reportService.search(keyword, page - 1);
+
+        model.addAttribute("keyword", keyword);
+        model.addAttribute("reportsList", result.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("hasPrev", result.hasPrevious());
+        model.addAttribute("hasNext", result.hasNext());
+
+        // 日報検索画面に遷移
+        return "reports/search";
+    }
+
+    // 日報CSV出力
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(name = "employeeCode", required = false) String employeeCode) {
+        // 期間の指定がない場合は当月1日から本日までを出力します。
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+
+        // 行はDBから読み込みながらレスポンスに直接書き出します(全件をメモリに保持しない)。
+        StreamingResponseBody body = outputStream -> reportExportService.exportCsv(start, end, employeeCode,
+                outputStream);
+        String filename = "reports_" + start + "_" + end + ".csv";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    // 日報集計画面(従業員ごとの月の件数・未提出日・平均文字数)
+    @GetMapping("/summary")
+    public String summary(@RequestParam(name = "month", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            Model model) {
+        // 月の指定がない場合は当月を表示します。集計は日報の登録時に更新済みの集計テーブルから取得します。
+        YearMonth target = month != null ? month : YearMonth.now();
+        model.addAttribute("month", target);
+        model.addAttribute("summaries", reportSummaryService.findMonthly(target));
+
+        // 日報集計画面に遷移
+        return "reports/summary";
+    }
+
+    // 日報未提出画面(検出ジョブの結果を表示)
+    @GetMapping("/missing")
+    public String missing(@RequestParam(name = "date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            Model model) {
+        // 日付の指定がない場合は前営業日を表示します。
+        LocalDate target = date != null ? date : MissingReportService.previousBusinessDay(LocalDate.now());
+        model.addAttribute("date", target);
+        MissingReportRun run = missingReportService.findRun(target).orElse(null);
+        model.addAttribute("run", run);
+        // 検出中は途中までの結果を表示しません。
+        model.addAttribute("missingReports",
+                run != null && run.isRunning() ? List.of() : missingReportService.findByReportDate(target));
+
+        // 日報未提出画面に遷移
+        return "reports/missing";
+    }
+
+    // 日報未提出の検出(指定した日について検出ジョブをすぐに実行します)
+    @PostMapping("/missing")
+    public String detectMissing(@RequestParam(name = "date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+        missingReportService.detect(date);
+        return "redirect:/reports/missing?date=" + date;
+    }
+
+    // 日報一括登録画面
+    @GetMapping("/import")
+    public String importForm() {
+        // 日報一括登録画面に遷移
+        return "reports/import";
+    }
+
+    // 日報一括登録処理(CSV 日報CSV出力の形式も読み込めます)
+    @PostMapping("/import")
+    public String importCsv(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        // 入力に誤りのある行は登録せず、行ごとのエラーとして結果画面に表示します。
+        model.addAttribute("result", importService.importReports(file.getInputStream()));
+        return "reports/import";
+    }
+
     // 日報詳細画面
     @GetMapping(value = "/{id}/")
-    public String detail(@PathVariable Integer id, Model model) {
-        // reportService.findById(id)メソッドを呼び出して、指定されたidのレポートを取得し、それを"report"という名前でモデルに追加します。
-        model.addAttribute("report", reportService.findById(id));
+    public String detail(@PathVariable Integer id, Model model, WebRequest webRequest) {
+        // 日報・従業員のバージョンと更新日時のみを取得し、前回の表示から変わっていなければ描画せずに304を返します。
+        Optional<ReportStamp> stamp = reportService.findStamp(id);
+        if (stamp.isPresent() && ConditionalGet.checkNotModified(webRequest,
+                stamp.get().getVersion() + ":" + stamp.get().getEmployeeVersion(),
+                Collections.max(List.of(stamp.get().getUpdatedAt(), stamp.get().getEmployeeUpdatedAt())))) {
+            return null;
+        }
+        return detail(id, model);
+    }
+
+    // 日報詳細画面の表示(削除エラー時の再表示でも使用)
+    public String detail(Integer id, Model model) {
+        // reportService.findWithEmployeeById(id)メソッドを呼び出して、指定されたidのレポートを従業員と合わせて取得し、それを"report"という名前でモデルに追加します。
+        model.addAttribute("report", reportService.findWithEmployeeById(id));
 
         // 日報詳細画面に遷移
         return "reports/detail"; // reports/detail"という名前のビュー（テンプレート）を返します。このビューは詳細ページを表示します。
@@ -57,8 +247,8 @@ public class ReportController {
     // 日報更新画面を表示
     @GetMapping("/{id}/update/")
     public String edit(@PathVariable("id") Integer id, Model model, Report report) {
-        // reportService.findById(id)メソッドを呼び出して、指定されたidのレポートを取得し、それを"report"という名前でモデルに追加します。
-        model.addAttribute("report", reportService.findById(id));
+        // reportService.findWithEmployeeById(id)メソッドを呼び出して、指定されたidのレポートを従業員と合わせて取得し、それを"report"という名前でモデルに追加します。
+        model.addAttribute("report", reportService.findWithEmployeeById(id));
 
         // 日報更新画面に遷移
         return "reports/update";
@@ -75,7 +265,16 @@ public class ReportController {
             return edit(id, model, report);
         }
         //　エラーを表示して編集画面に戻ります
-        ErrorKinds result = reportService.update(report, id, userDetail);
+        ErrorKinds result;
+        // 同一日付の日報が同時に更新された場合は一意制約違反となるためtry~catchで対応
+        // 他の利用者が同じ日報を同時に更新した場合はバージョンの不一致(楽観ロック)となり、最新の内容を表示し直す
+        try {
+            result = reportService.update(report, id, userDetail);
+        } catch (DataIntegrityViolationException e) {
+            result = ErrorKinds.DATECHECK_ERROR;
+        } catch (OptimisticLockingFailureException e) {
+            result = ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
         if (ErrorMessage.contains(result)) {
             model.addAttribute(ErrorMessage.getErrorName(result),ErrorMessage.getErrorValue(result));
             return edit(id, model, report);
@@ -89,7 +288,7 @@ public class ReportController {
     @GetMapping(value = "/add")
     // 新しいReportオブジェクトをモデルに追加します。 Model model ビューにデータを渡すためのオブジェクトです。
     public String create(@ModelAttribute Report report, Model model, @AuthenticationPrincipal UserDetail userDetail) {
-        model.addAttribute("loginUser", userDetail.getEmployee());
+        model.addAttribute("loginUser", userDetail);
         // 日報新規登録画面に遷移
         return "reports/new";
     }
@@ -105,11 +304,13 @@ public class ReportController {
             return create(report, model, userDetail);
         }
 
-
-
-        Employee loginUser = userDetail.getEmployee(); // メソッドを呼び出して、ログインユーザーの情報を取得し、それをレポートに設定します。
-        report.setEmployee(loginUser);
-        ErrorKinds result = reportService.save(report, userDetail); // メソッドを呼び出して、レポートを保存します。エラー時にはエラーを表示
+        ErrorKinds result;
+        // 同一日付の日報が同時に登録された場合は一意制約違反となるためtry~catchで対応
+        try {
+            result = reportService.save(report, userDetail); // メソッドを呼び出して、ログインユーザーの日報として保存します。エラー時にはエラーを表示
+        } catch (DataIntegrityViolationException e) {
+            result = ErrorKinds.DATECHECK_ERROR;
+        }
         if (ErrorMessage.contains(result)) {
             model.addAttribute(ErrorMessage.getErrorName(result),ErrorMessage.getErrorValue(result));
             return create(report, model, userDetail);
@@ -0,0 +1,27 @@
+package com.techacademy.controller;
+
+import java.time.LocalDate;
+
+import org.hibernate.validator.constraints.Length;
+
+import com.techacademy.entity.Report;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+// APIの日報登録・更新の入力(入力チェックはReportと同じ)
+// 従業員・ID等はクライアントから受け取らない(登録はログイン中の従業員の日報とする)
+// version: 更新時は取得した日報のバージョンを指定する(楽観ロック)
+public record ReportRequest(@NotNull LocalDate reportDate, @NotEmpty @Length(max = 100) String title,
+        @NotEmpty @Length(max = 600) String content, Integer version) {
+
+    // 日報に変換する
+    Report toReport() {
+        Report report = new Report();
+        report.setReportDate(reportDate);
+        report.setTitle(title);
+        report.setContent(content);
+        report.setVersion(version);
+        return report;
+    }
+}
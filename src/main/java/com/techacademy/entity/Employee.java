@@ -4,9 +4,12 @@ package com.techacademy.entity;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.validator.constraints.Length;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.OneToMany;
@@ -15,6 +18,7 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
@@ -22,6 +26,9 @@ import lombok.Data;
 @Entity
 @Table(name = "employees")
 @SQLRestriction("delete_flg = false")
+// 更新が少なく参照が多いため2次キャッシュに保持する(IDでの取得は削除フラグを確認するEmployeeRepository.findActiveByIdを使う)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employee")
 public class Employee {
 
     public static enum Role {
@@ -69,6 +76,11 @@ public class Employee {
     @Column(columnDefinition="TINYINT", nullable = false)
     private boolean deleteFlg;
 
+    // バージョン(楽観ロック 更新時に画面表示時の値と異なれば他の利用者が先に更新している)
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
     // 登録日時
     @Column(nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,39 @@
+package com.techacademy.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+// 日報の未提出(検出ジョブの結果 対象日ごとに検出時点の従業員を記録する)
+@Data
+@Entity
+@Table(name = "missing_reports", uniqueConstraints = @UniqueConstraint(name = "uk_missing_reports_date_employee",
+        columnNames = { "report_date", "employee_code" }))
+public class MissingReport {
+
+    // ID(JDBCバッチで登録できるようシーケンスから採番する)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "missing_reports_seq")
+    @SequenceGenerator(name = "missing_reports_seq", sequenceName = "missing_reports_seq", allocationSize = 50)
+    private Integer id;
+
+    // 対象日
+    @Column(nullable = false)
+    private LocalDate reportDate;
+
+    // 社員番号
+    @Column(length = 10, nullable = false)
+    private String employeeCode;
+
+    // 氏名(検出時点)
+    @Column(length = 20, nullable = false)
+    private String employeeName;
+}
@@ -0,0 +1,37 @@
+package com.techacademy.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// 日報の未提出検出ジョブの実行結果(対象日ごとに最後の実行のみ保持する)
+@Data
+@Entity
+@Table(name = "missing_report_runs")
+public class MissingReportRun {
+
+    // 対象日
+    @Id
+    private LocalDate reportDate;
+
+    // 実行日時(実行中の場合は開始日時)
+    @Column(nullable = false)
+    private LocalDateTime executedAt;
+
+    // 処理時間(ミリ秒)
+    @Column(nullable = false)
+    private long durationMillis;
+
+    // 未提出の従業員数
+    @Column(nullable = false)
+    private int missingCount;
+
+    // 実行中(未提出の登録が完了していない)
+    @Column(nullable = false)
+    private boolean running;
+}
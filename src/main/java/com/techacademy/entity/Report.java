@@ -4,36 +4,57 @@ package com.techacademy.entity;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.validator.constraints.Length;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "Reports")
+// インデックス・制約はマイグレーション(db/migration)で作成する(以下はその一覧)
+// 一覧のキーセットページング(有効な日報の日付・ID順)用インデックス
+// 一覧の更新確認(有効な日報の件数・最終更新日時)用インデックス
+// 同一従業員・同一日付の有効な日報は1件のみ(同時登録もDBで弾く 従業員・日付での検索にも使う)
+@Table(name = "Reports", indexes = { @Index(name = "idx_reports_delete_flg_report_date_id", columnList = "delete_flg, report_date, id"),
+        @Index(name = "idx_reports_delete_flg_updated_at", columnList = "delete_flg, updated_at") },
+        uniqueConstraints = @UniqueConstraint(name = "uk_reports_employee_date_active",
+                columnNames = { "employee_code", "report_date", "active_flg" }))
 @SQLRestriction("delete_flg = false")
+// IDでの取得は2次キャッシュから行うため、削除フラグを確認するReportRepository.findActiveByIdを使う
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "report")
 public class Report {
 
-    @ManyToOne
+    // 更新系で不要な従業員を読み込まないよう遅延取得とし、参照系はEntityGraphで同時に取得する
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_code", referencedColumnName = "code", nullable = false)
     private Employee employee;
 
 
     // ID
+    // 一括登録をJDBCバッチで行えるよう、IDENTITYではなくシーケンス(MySQLではテーブルで代替)から50件ずつ採番する
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reports_seq")
+    @SequenceGenerator(name = "reports_seq", sequenceName = "reports_seq", allocationSize = 50)
     private Integer id;
 
 
@@ -60,6 +81,16 @@ public class Report {
     @Column(columnDefinition="TINYINT", nullable = false)
     private boolean deleteFlg;
 
+    // 有効フラグ(削除フラグから生成。削除済みはNULLとなり一意制約の対象外になる)
+    // 生成列の定義(GENERATED ALWAYS AS ...)はマイグレーションで行う
+    @Column(columnDefinition = "TINYINT", insertable = false, updatable = false)
+    private Boolean activeFlg;
+
+    // バージョン(楽観ロック 更新時に画面表示時の値と異なれば他の利用者が先に更新している)
+    @Version
+    @Column(nullable = false)
+    private Integer version;
+
     // 登録日時
     @Column(nullable = false)
     private LocalDateTime createdAt;
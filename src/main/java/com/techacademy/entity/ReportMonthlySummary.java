@@ -0,0 +1,53 @@
+package com.techacademy.entity;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 従業員・月ごとの日報の集計(日報の登録・更新・削除時に差分を加算して更新する)
+// ダッシュボードは日報テーブルを読まず、この集計のみを参照する
+@Data
+@Entity
+@Table(name = "report_monthly_summaries")
+@IdClass(ReportMonthlySummary.Key.class)
+public class ReportMonthlySummary {
+
+    // 社員番号
+    @Id
+    @Column(length = 10)
+    private String employeeCode;
+
+    // 年月(yyyyMM形式の数値 例: 202410)
+    @Id
+    private int reportMonth;
+
+    // 日報の件数
+    @Column(nullable = false)
+    private int reportCount;
+
+    // 内容の文字数の合計(平均文字数 = 合計 / 件数)
+    @Column(nullable = false)
+    private long contentLength;
+
+    // 日報を登録した日(1日をビット0として、登録済みの日のビットを立てる)
+    @Column(nullable = false)
+    private int reportedDays;
+
+    // 複合主キー
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String employeeCode;
+        private int reportMonth;
+    }
+}
@@ -0,0 +1,11 @@
+package com.techacademy.repository;
+
+// 従業員一覧画面の表示用射影(一覧に表示する列のみ取得する)
+public interface EmployeeListView {
+
+    // 社員番号
+    String getCode();
+
+    // 氏名
+    String getName();
+}
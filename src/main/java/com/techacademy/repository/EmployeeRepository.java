@@ -1,8 +1,56 @@
 package com.techacademy.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.SpecHints;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.techacademy.entity.Employee;
 
+import jakarta.persistence.QueryHint;
+
 public interface EmployeeRepository extends JpaRepository<Employee, String> {
-}
\ No newline at end of file
+
+    // 有効な従業員を社員番号で取得する(従業員の1件取得はfindByIdではなくこちらを使う)
+    // 2次キャッシュから取得した場合は@SQLRestrictionが適用されず削除済みの従業員も含まれるため除外する
+    default Optional<Employee> findActiveById(String code) {
+        return findById(code).filter(employee -> !employee.isDeleteFlg());
+    }
+
+    // 有効な従業員を社員番号で複数取得する(findAllByIdではなくこちらを使う)
+    default List<Employee> findAllActiveById(Iterable<String> codes) {
+        return findAllById(codes).stream().filter(employee -> !employee.isDeleteFlg()).toList();
+    }
+
+    // 一覧に表示する列のみを取得する
+    @Query("SELECT e.code AS code, e.name AS name FROM Employee e ORDER BY e.code")
+    List<EmployeeListView> findAllListViews();
+
+    // 有効な従業員 認証用に2次キャッシュを使わずDBから取得する
+    @Query("SELECT e FROM Employee e WHERE e.code = :code")
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    Optional<Employee> findByCodeFromDatabase(@Param("code") String code);
+
+    // 指定した社員番号のうち登録済みのもの(論理削除済みを含む) 一括登録の重複チェック用
+    @Query(value = "SELECT code FROM employees WHERE code IN :codes", nativeQuery = true)
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    // 指定した日の日報がない有効な従業員(指定日時点で登録済みの従業員のみ) 1回の反結合(NOT EXISTS)で取得する
+    // 社員番号順に、指定した社員番号より後ろから1チャンク分を取得する(キーセットページング)
+    @Query("SELECT e.code AS code, e.name AS name FROM Employee e"
+            + " WHERE e.code > :afterCode AND e.createdAt < :registeredBefore"
+            + " AND NOT EXISTS (SELECT r.id FROM Report r WHERE r.employee = e AND r.reportDate = :reportDate)"
+            + " ORDER BY e.code")
+    List<EmployeeListView> findWithoutReport(@Param("reportDate") LocalDate reportDate,
+            @Param("registeredBefore") LocalDateTime registeredBefore, @Param("afterCode") String afterCode,
+            Pageable pageable);
+}
@@ -0,0 +1,195 @@
+package com.techacademy.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.techacademy.entity.Report;
+
+// 組み込みのLuceneインデックス(メモリ上)による全文検索 FULLTEXTインデックスのないH2(テスト等)で使用する
+// 日本語はMySQLのngramパーサと同様に2文字ずつ区切って索引する(CJKAnalyzer)
+// インデックスは起動時にDBから作成し、以降は登録・更新・削除のコミット後に反映する
+@Repository
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "lucene")
+public class LuceneReportSearchRepository implements ReportSearchRepository, DisposableBean {
+
+    private static final String ID = "id";
+    private static final String EMPLOYEE = "employee";
+    private static final String TITLE = "title";
+    private static final String CONTENT = "content";
+
+    // 起動時のインデックス作成で1回に読み込む日報数
+    static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final ReportRepository reportRepository;
+    private final Analyzer analyzer = new CJKAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    @Autowired
+    public LuceneReportSearchRepository(ReportRepository reportRepository) throws IOException {
+        this.reportRepository = reportRepository;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // 起動時に有効な日報からインデックスを作成する
+    // 索引する列のみをID順にREBUILD_CHUNK_SIZE件ずつ読み込み、日報数に関わらずエンティティを読み込まない
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        apply(() -> {
+            writer.deleteAll();
+            int afterId = 0;
+            List<ReportIndexView> chunk;
+            do {
+                chunk = reportRepository.findIndexViews(afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+                for (ReportIndexView report : chunk) {
+                    writer.addDocument(toDocument(report.getId(), report.getEmployeeCode(), report.getTitle(),
+                            report.getContent()));
+                }
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+        });
+    }
+
+    @Override
+    public List<Integer> searchIds(String keyword, int offset, int limit) {
+        Query query = toQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // 関連度の上位N件のみを取得する
+                TopDocs topDocs = searcher.search(query, offset + limit);
+                List<Integer> ids = new ArrayList<>();
+                for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    ids.add(Integer.valueOf(searcher.storedFields().document(scoreDoc.doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void index(Report report) {
+        Document document = toDocument(report.getId(), report.getEmployee().getCode(), report.getTitle(),
+                report.getContent());
+        Term id = new Term(ID, report.getId().toString());
+        afterCommit(() -> writer.updateDocument(id, document));
+    }
+
+    @Override
+    public void remove(Integer id) {
+        afterCommit(() -> writer.deleteDocuments(new Term(ID, id.toString())));
+    }
+
+    @Override
+    public void removeByEmployee(String employeeCode) {
+        afterCommit(() -> writer.deleteDocuments(new Term(EMPLOYEE, employeeCode)));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    // 空白区切りのキーワードごとに、タイトルか内容にフレーズとして含む日報を検索する(すべてのキーワードを含むこと)
+    private Query toQuery(String keyword) {
+        QueryBuilder builder = new QueryBuilder(analyzer);
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean hasClause = false;
+        for (String term : keyword.strip().split("(?U)\\s+")) {
+            BooleanQuery.Builder fields = new BooleanQuery.Builder();
+            boolean hasField = false;
+            for (String field : new String[] { TITLE, CONTENT }) {
+                Query phrase = builder.createPhraseQuery(field, term);
+                if (phrase != null) {
+                    fields.add(phrase, Occur.SHOULD);
+                    hasField = true;
+                }
+            }
+            if (hasField) {
+                query.add(fields.build(), Occur.MUST);
+                hasClause = true;
+            }
+        }
+        return hasClause ? query.build() : null;
+    }
+
+    private Document toDocument(Integer id, String employeeCode, String title, String content) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Store.YES));
+        document.add(new StringField(EMPLOYEE, employeeCode, Store.NO));
+        document.add(new TextField(TITLE, title, Store.NO));
+        document.add(new TextField(CONTENT, content, Store.NO));
+        return document;
+    }
+
+    // トランザクション中であればコミット後に、そうでなければすぐにインデックスへ反映する
+    private void afterCommit(IndexOperation operation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(operation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(operation);
+            }
+        });
+    }
+
+    // インデックスを更新し、以降の検索に反映する
+    private void apply(IndexOperation operation) {
+        try {
+            operation.run();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void run() throws IOException;
+    }
+}
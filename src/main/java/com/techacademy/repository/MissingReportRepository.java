@@ -0,0 +1,22 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.techacademy.entity.MissingReport;
+
+public interface MissingReportRepository extends JpaRepository<MissingReport, Integer> {
+
+    // 指定した日の未提出(社員番号順)
+    List<MissingReport> findByReportDateOrderByEmployeeCode(LocalDate reportDate);
+
+    // 指定した日の未提出を1回のDELETEでまとめて削除する(検出ジョブの再実行時)
+    @Modifying
+    @Query("DELETE FROM MissingReport m WHERE m.reportDate = :reportDate")
+    int deleteByReportDate(@Param("reportDate") LocalDate reportDate);
+}
@@ -0,0 +1,21 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.techacademy.entity.MissingReportRun;
+
+import jakarta.persistence.LockModeType;
+
+public interface MissingReportRunRepository extends JpaRepository<MissingReportRun, LocalDate> {
+
+    // 指定した日の実行結果を更新用にロックして取得する(SELECT ... FOR UPDATE) 同じ日の検出の開始を直列化する
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM MissingReportRun r WHERE r.reportDate = :reportDate")
+    Optional<MissingReportRun> findForUpdate(@Param("reportDate") LocalDate reportDate);
+}
@@ -0,0 +1,54 @@
+package com.techacademy.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import com.techacademy.entity.Report;
+
+// MySQLのFULLTEXTインデックス(ngramパーサ)による全文検索
+// インデックスはMySQLが更新するため、登録・更新・削除時の処理は不要
+@Repository
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "mysql", matchIfMissing = true)
+public class MySqlReportSearchRepository implements ReportSearchRepository {
+
+    private final ReportRepository reportRepository;
+
+    @Autowired
+    public MySqlReportSearchRepository(ReportRepository reportRepository) {
+        this.reportRepository = reportRepository;
+    }
+
+    // OFFSETを使うと上位N件の取得にならないため、ページの末尾までの上位N件を取得して前のページ分を読み飛ばす
+    @Override
+    public List<Integer> searchIds(String keyword, int offset, int limit) {
+        List<Integer> ids = reportRepository.searchIdsByFullText(toBooleanQuery(keyword), offset + limit);
+        return ids.size() > offset ? ids.subList(offset, ids.size()) : List.of();
+    }
+
+    @Override
+    public void index(Report report) {
+    }
+
+    @Override
+    public void remove(Integer id) {
+    }
+
+    @Override
+    public void removeByEmployee(String employeeCode) {
+    }
+
+    // 空白区切りのキーワードを、すべてを含む(+)フレーズ検索("")のBOOLEAN MODEの条件にする
+    // ngramパーサではフレーズ指定により、キーワードのngramが連続して現れる日報のみ一致する
+    static String toBooleanQuery(String keyword) {
+        StringBuilder query = new StringBuilder();
+        for (String term : keyword.replaceAll("[\"+\\-<>()~*@]", " ").strip().split("(?U)\\s+")) {
+            if (!term.isEmpty()) {
+                query.append(query.length() == 0 ? "" : " ").append("+\"").append(term).append('"');
+            }
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.techacademy.repository;
+
+// 日報の全文検索で索引する列(検索インデックスの作成用射影)
+public interface ReportIndexView {
+
+    // ID
+    Integer getId();
+
+    // 社員番号
+    String getEmployeeCode();
+
+    // タイトル
+    String getTitle();
+
+    // 内容
+    String getContent();
+}
@@ -0,0 +1,13 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+
+// 日報の従業員・日付の組み合わせ(一括登録の重複チェック用射影)
+public interface ReportKeyView {
+
+    // 社員番号
+    String getEmployeeCode();
+
+    // 日付
+    LocalDate getReportDate();
+}
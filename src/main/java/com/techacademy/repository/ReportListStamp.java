@@ -0,0 +1,17 @@
+package com.techacademy.repository;
+
+import java.time.LocalDateTime;
+
+// 日報一覧画面の更新状況(条件付きGETの判定用射影 件数と最終更新日時のみ取得する)
+// 削除された日報は最終更新日時の対象外となるが、件数が変わるため判定できる
+public interface ReportListStamp {
+
+    // 日報の件数
+    Long getCount();
+
+    // 日報の最終更新日時
+    LocalDateTime getLastUpdatedAt();
+
+    // 従業員の最終更新日時(氏名の変更の確認用)
+    LocalDateTime getEmployeeLastUpdatedAt();
+}
@@ -0,0 +1,25 @@
+package com.techacademy.repository;
+
+import java.time.LocalDate;
+
+// 日報一覧画面の表示用射影(一覧に表示する列のみ取得する)
+public interface ReportListView {
+
+    // ID
+    Integer getId();
+
+    // 日付
+    LocalDate getReportDate();
+
+    // 社員番号
+    String getEmployeeCode();
+
+    // 氏名
+    String getEmployeeName();
+
+    // タイトル
+    String getTitle();
+
+    // 内容(先頭のみ)
+    String getContent();
+}
@@ -0,0 +1,44 @@
+package com.techacademy.repository;
+
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.techacademy.entity.ReportMonthlySummary;
+
+import jakarta.persistence.QueryHint;
+
+public interface ReportMonthlySummaryRepository
+        extends JpaRepository<ReportMonthlySummary, ReportMonthlySummary.Key> {
+
+    // 集計に差分を加算する(行がなければ作成する) 同時に更新されても差分が失われないよう1文で行う
+    // 更新対象のテーブルを指定し、2次キャッシュ(従業員・日報)が破棄されないようにする
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "report_monthly_summaries"))
+    @Query(value = "INSERT INTO report_monthly_summaries"
+            + " (employee_code, report_month, report_count, content_length, reported_days)"
+            + " VALUES (:employeeCode, :reportMonth, :reportCount, :contentLength, :reportedDays)"
+            + " ON DUPLICATE KEY UPDATE report_count = report_count + VALUES(report_count),"
+            + " content_length = content_length + VALUES(content_length),"
+            + " reported_days = reported_days + VALUES(reported_days)", nativeQuery = true)
+    int addDelta(@Param("employeeCode") String employeeCode, @Param("reportMonth") int reportMonth,
+            @Param("reportCount") int reportCount, @Param("contentLength") long contentLength,
+            @Param("reportedDays") int reportedDays);
+
+    // 指定した従業員の集計を削除する(従業員の日報の一括削除時)
+    @Modifying
+    @Query("DELETE FROM ReportMonthlySummary s WHERE s.employeeCode = :employeeCode")
+    int deleteByEmployeeCode(@Param("employeeCode") String employeeCode);
+
+    // 有効な従業員ごとの指定した月の集計(日報のない従業員も含む)
+    @Query("SELECT e.code AS employeeCode, e.name AS employeeName, s.reportMonth AS reportMonth,"
+            + " s.reportCount AS reportCount, s.contentLength AS contentLength, s.reportedDays AS reportedDays"
+            + " FROM Employee e LEFT JOIN ReportMonthlySummary s ON s.employeeCode = e.code AND s.reportMonth = :reportMonth"
+            + " ORDER BY e.code")
+    List<ReportMonthlySummaryView> findViewsByReportMonth(@Param("reportMonth") int reportMonth);
+}
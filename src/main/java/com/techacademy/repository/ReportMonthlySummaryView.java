@@ -0,0 +1,23 @@
+package com.techacademy.repository;
+
+// 従業員・月ごとの日報の集計(ダッシュボード表示用射影 日報のない月は件数等がnullとなる)
+public interface ReportMonthlySummaryView {
+
+    // 社員番号
+    String getEmployeeCode();
+
+    // 氏名
+    String getEmployeeName();
+
+    // 年月(yyyyMM形式)
+    Integer getReportMonth();
+
+    // 日報の件数
+    Integer getReportCount();
+
+    // 内容の文字数の合計
+    Long getContentLength();
+
+    // 日報を登録した日(1日をビット0とするビット列)
+    Integer getReportedDays();
+}
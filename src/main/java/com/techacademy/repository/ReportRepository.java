@@ -1,14 +1,138 @@
 package com.techacademy.repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
 
+import jakarta.persistence.QueryHint;
+
 public interface ReportRepository extends JpaRepository<Report, Integer> {
+
+    // 有効な日報をIDで取得する(日報の1件取得はfindByIdではなくこちらを使う)
+    // 2次キャッシュから取得した場合は@SQLRestrictionが適用されず削除済みの日報も含まれるため除外する
+    default Optional<Report> findActiveById(Integer id) {
+        return findById(id).filter(report -> !report.isDeleteFlg());
+    }
+
+    // 一覧に表示する列のみを取得する(内容はSQL側で先頭50文字に切り詰める)
+    String LIST_VIEW_SELECT = "SELECT r.id AS id, r.reportDate AS reportDate, e.code AS employeeCode, e.name AS employeeName,"
+            + " r.title AS title, SUBSTRING(r.content, 1, 50) AS content FROM Report r JOIN r.employee e";
+
     List<Report> findByEmployee(Employee employee);
     List<Report> findByReportDateAndEmployee(LocalDate reportDate, Employee employee);
-}
\ No newline at end of file
+
+    // 同一従業員・同一日付の日報が存在するか
+    boolean existsByEmployeeAndReportDate(Employee employee, LocalDate reportDate);
+
+    // 指定したID以外に同一従業員・同一日付の日報が存在するか
+    boolean existsByEmployeeAndReportDateAndIdNot(Employee employee, LocalDate reportDate, Integer id);
+
+    // 指定した従業員の日報を1回のUPDATEでまとめて論理削除する
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    // (一括更新でもバージョンを上げ、削除前の画面からの更新を楽観ロックで弾く)
+    @Query("UPDATE Report r SET r.deleteFlg = true, r.updatedAt = :updatedAt, r.version = r.version + 1"
+            + " WHERE r.employee = :employee AND r.deleteFlg = false")
+    int softDeleteByEmployee(@Param("employee") Employee employee, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // 日報一覧画面の更新状況(件数と最終更新日時) 削除フラグ・更新日時のインデックスのみで集計する
+    @Query("SELECT COUNT(r) AS count, MAX(r.updatedAt) AS lastUpdatedAt,"
+            + " (SELECT MAX(e.updatedAt) FROM Employee e) AS employeeLastUpdatedAt FROM Report r")
+    ReportListStamp findListStamp();
+
+    // 日報詳細画面の更新状況(日報と従業員のバージョン・更新日時)
+    @Query("SELECT r.version AS version, r.updatedAt AS updatedAt, e.version AS employeeVersion,"
+            + " e.updatedAt AS employeeUpdatedAt FROM Report r JOIN r.employee e WHERE r.id = :id")
+    Optional<ReportStamp> findStampById(@Param("id") Integer id);
+
+    // 従業員を同じクエリで取得する全件検索(参照用)
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT r FROM Report r")
+    List<Report> findAllWithEmployee();
+
+    // 従業員を同じクエリで取得する1件検索(参照用)
+    @EntityGraph(attributePaths = "employee")
+    Optional<Report> findWithEmployeeById(Integer id);
+
+    // 一覧の先頭ページ(日付・IDの降順、表示列のみ)
+    @Query(LIST_VIEW_SELECT + " ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListView> findFirstPage(Pageable pageable);
+
+    // 指定した(日付, ID)より後ろのページ(キーセットページング)
+    @Query(LIST_VIEW_SELECT + " WHERE r.reportDate < :reportDate OR (r.reportDate = :reportDate AND r.id < :id)"
+            + " ORDER BY r.reportDate DESC, r.id DESC")
+    List<ReportListView> findNextPage(@Param("reportDate") LocalDate reportDate, @Param("id") Integer id,
+            Pageable pageable);
+
+    // 指定した(日付, ID)より前のページ(昇順で取得するため呼び出し側で並びを戻す)
+    @Query(LIST_VIEW_SELECT + " WHERE r.reportDate > :reportDate OR (r.reportDate = :reportDate AND r.id > :id)"
+            + " ORDER BY r.reportDate ASC, r.id ASC")
+    List<ReportListView> findPreviousPage(@Param("reportDate") LocalDate reportDate, @Param("id") Integer id,
+            Pageable pageable);
+
+    // 指定したIDの日報(表示列のみ) 全文検索の結果表示用
+    @Query(LIST_VIEW_SELECT + " WHERE r.id IN :ids")
+    List<ReportListView> findListViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // 全文検索(MySQLのFULLTEXTインデックス、ngramパーサ) 関連度の上位limit件の日報IDのみ取得する
+    // 条件・並び順をMATCHのみとし、全文検索インデックスの関連度順の上位N件の取得で処理させる
+    // (論理削除済みの日報も含まれるため、表示時に除外する)
+    @Query(value = "SELECT r.id FROM reports r WHERE MATCH(r.title, r.content) AGAINST(:keyword IN BOOLEAN MODE)"
+            + " ORDER BY MATCH(r.title, r.content) AGAINST(:keyword IN BOOLEAN MODE) DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Integer> searchIdsByFullText(@Param("keyword") String keyword, @Param("limit") int limit);
+
+    // 全文検索のインデックス作成用 有効な日報の索引する列のみを、指定したIDより後ろからIDの昇順に取得する(キーセットページング)
+    @Query("SELECT r.id AS id, r.employee.code AS employeeCode, r.title AS title, r.content AS content FROM Report r"
+            + " WHERE r.id > :afterId ORDER BY r.id")
+    List<ReportIndexView> findIndexViews(@Param("afterId") Integer afterId, Pageable pageable);
+
+    // 出力用 指定期間の日報を従業員と合わせて日付・ID順に1件ずつ読み込む
+    // (JDBCのフェッチサイズ単位で取得し、読み取り専用・2次キャッシュ不使用)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    @Query("SELECT r FROM Report r JOIN FETCH r.employee WHERE r.reportDate BETWEEN :from AND :to"
+            + " ORDER BY r.reportDate, r.id")
+    Stream<Report> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 出力用 指定期間・指定従業員の日報を日付・ID順に1件ずつ読み込む
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE") })
+    @Query("SELECT r FROM Report r JOIN FETCH r.employee e WHERE r.reportDate BETWEEN :from AND :to"
+            + " AND e.code = :employeeCode ORDER BY r.reportDate, r.id")
+    Stream<Report> streamForExportByEmployee(@Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("employeeCode") String employeeCode);
+
+    // 指定した従業員・日付で登録済みの有効な日報(従業員と日付の組み合わせのみ) 一括登録の重複チェック用
+    @Query("SELECT r.employee.code AS employeeCode, r.reportDate AS reportDate FROM Report r"
+            + " WHERE r.employee.code IN :employeeCodes AND r.reportDate IN :reportDates")
+    List<ReportKeyView> findKeys(@Param("employeeCodes") Collection<String> employeeCodes,
+            @Param("reportDates") Collection<LocalDate> reportDates);
+
+    // 従業員・月ごとの日報の集計(GROUP BYでDB側で集計する) 集計テーブルの作成用
+    // 同一従業員・同一日付の日報は1件のため、日ごとの2のべき乗の合計が登録日のビット列となる
+    @Query("SELECT e.code AS employeeCode, e.name AS employeeName,"
+            + " YEAR(r.reportDate) * 100 + MONTH(r.reportDate) AS reportMonth, CAST(COUNT(r) AS Integer) AS reportCount,"
+            + " CAST(SUM(LENGTH(r.content)) AS Long) AS contentLength,"
+            + " CAST(SUM(POWER(2, DAY(r.reportDate) - 1)) AS Integer) AS reportedDays"
+            + " FROM Report r JOIN r.employee e"
+            + " GROUP BY e.code, e.name, YEAR(r.reportDate) * 100 + MONTH(r.reportDate)")
+    List<ReportMonthlySummaryView> summarizeMonthly();
+}
@@ -0,0 +1,23 @@
+package com.techacademy.repository;
+
+import java.util.List;
+
+import com.techacademy.entity.Report;
+
+// 日報のタイトル・内容の全文検索
+// app.search.engineで実装を切り替える(mysql: FULLTEXTインデックス / lucene: 組み込みのLuceneインデックス)
+public interface ReportSearchRepository {
+
+    // キーワード(空白区切りはAND)に一致する日報のIDを関連度の高い順に取得する
+    // 関連度のみで並べるため、同じ関連度の日報の順序は実装に依存する 論理削除済みの日報を含むことがある
+    List<Integer> searchIds(String keyword, int offset, int limit);
+
+    // 日報の登録・更新をインデックスに反映する
+    void index(Report report);
+
+    // 日報の削除をインデックスに反映する
+    void remove(Integer id);
+
+    // 従業員の日報の一括削除をインデックスに反映する
+    void removeByEmployee(String employeeCode);
+}
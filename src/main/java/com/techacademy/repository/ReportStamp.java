@@ -0,0 +1,19 @@
+package com.techacademy.repository;
+
+import java.time.LocalDateTime;
+
+// 日報詳細画面の更新状況(条件付きGETの判定用射影 日報と従業員のバージョン・更新日時のみ取得する)
+public interface ReportStamp {
+
+    // 日報のバージョン
+    Integer getVersion();
+
+    // 日報の更新日時
+    LocalDateTime getUpdatedAt();
+
+    // 従業員のバージョン
+    Integer getEmployeeVersion();
+
+    // 従業員の更新日時
+    LocalDateTime getEmployeeUpdatedAt();
+}
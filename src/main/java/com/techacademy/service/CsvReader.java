@@ -0,0 +1,88 @@
+package com.techacademy.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV(RFC 4180形式)を1レコードずつ読み込む 日報CSV出力と同じ形式(BOM付き、ダブルクォート囲み)を読み込める
+// ファイル全体を読み込まないため、件数に関わらずメモリ使用量は一定
+public class CsvReader {
+
+    private final BufferedReader reader;
+
+    private boolean first = true;
+
+    // 読み込み済みの行数(ダブルクォートで囲んだ値の中の改行も数える)
+    private int lines;
+
+    // 最後に読み込んだレコードの開始行
+    private int lineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    // 次のレコードを読み込む(終端の場合はnull)
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        // 先頭のBOMは読み飛ばす
+        if (first && c == '\uFEFF') {
+            c = reader.read();
+        }
+        first = false;
+        if (c == -1) {
+            return null;
+        }
+        lineNumber = lines + 1;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    // 値の中の改行(CRLFは1行とする)
+                    if (c == '\r' || (c == '\n' && (field.isEmpty() || field.charAt(field.length() - 1) != '\r'))) {
+                        lines++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                lines++;
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // 最後に読み込んだレコードの開始行(1から数える)
+    public int getLineNumber() {
+        return lineNumber;
+    }
+}
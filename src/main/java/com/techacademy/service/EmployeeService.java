@@ -2,21 +2,27 @@ package com.techacademy.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
-import com.techacademy.entity.Report;
+import com.techacademy.repository.EmployeeListView;
 import com.techacademy.repository.EmployeeRepository;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed(value = "app.service", description = "サービスの処理時間")
 public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
@@ -54,9 +60,16 @@ public class EmployeeService {
 
     // 従業員更新
     @Transactional
+    @CacheEvict(cacheNames = UserDetailService.CACHE_NAME, key = "#code")
     public ErrorKinds update(Employee employee, String code) {
         Employee oldEmployee = findByCode(code);
 
+        // 画面表示後に他の利用者が更新していた場合は上書きしない
+        // (確認後、コミットまでの間に更新された場合はUPDATEのバージョン条件で検出され、例外となる)
+        if (!Objects.equals(oldEmployee.getVersion(), employee.getVersion())) {
+            return ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
+
         // パスワードチェック
         ErrorKinds result = employeePasswordCheck(employee);
         if (ErrorKinds.CHECK_OK != result) {
@@ -75,10 +88,11 @@ public class EmployeeService {
 
     // 従業員削除
     @Transactional
+    @CacheEvict(cacheNames = UserDetailService.CACHE_NAME, key = "#code")
     public ErrorKinds delete(String code, UserDetail userDetail, ReportService reportService) {
 
         // 自分を削除しようとした場合はエラーメッセージを表示
-        if (code.equals(userDetail.getEmployee().getCode())) {
+        if (code.equals(userDetail.getCode())) {
             return ErrorKinds.LOGINCHECK_ERROR;
         }
         Employee employee = findByCode(code);
@@ -86,14 +100,8 @@ public class EmployeeService {
         employee.setUpdatedAt(now);
         employee.setDeleteFlg(true);
 
-        // 削除対象の従業員（employee）に紐づいている、日報のリスト（reportList）を取得
-        List<Report> reportList = reportService.findByEmployee(employee);
-
-     // 日報のリスト（reportList）を拡張for文を使って繰り返し
-        for (Report report : reportList) {
-            // 日報（report）のIDを指定して、日報情報を削除
-            reportService.delete(report.getId());
-        }
+        // 削除対象の従業員（employee）に紐づいている日報を1回のUPDATEでまとめて削除
+        reportService.deleteByEmployee(employee);
 
         return ErrorKinds.SUCCESS;
     }
@@ -103,10 +111,22 @@ public class EmployeeService {
         return employeeRepository.findAll();
     }
 
+    // 従業員一覧画面の表示用(表示列のみ)
+    @Transactional(readOnly = true)
+    public List<EmployeeListView> findAllListViews() {
+        return employeeRepository.findAllListViews();
+    }
+
+    // 従業員の件数を取得
+    @Transactional(readOnly = true)
+    public long count() {
+        return employeeRepository.count();
+    }
+
     // 1件を検索
     public Employee findByCode(String code) {
-        // findByIdで検索
-        Optional<Employee> option = employeeRepository.findById(code);
+        // 有効な従業員を検索(2次キャッシュから取得した削除済みの従業員も除外される)
+        Optional<Employee> option = employeeRepository.findActiveById(code);
         // 取得できなかった場合はnullを返す
         Employee employee = option.orElse(null);
         return employee;
@@ -115,6 +135,25 @@ public class EmployeeService {
     // 従業員パスワードチェック
     private ErrorKinds employeePasswordCheck(Employee employee) {
 
+        ErrorKinds result = passwordCheck(employee);
+        if (ErrorKinds.CHECK_OK != result) {
+            return result;
+        }
+
+        // ハッシュ計算はログインと同じスレッドプールで行うため、混雑時はログイン失敗用の例外となる
+        // 画面には500ではなく混雑エラーとして表示する
+        try {
+            employee.setPassword(passwordEncoder.encode(employee.getPassword()));
+        } catch (AuthenticationServiceException e) {
+            return ErrorKinds.PASSWORD_BUSY_ERROR;
+        }
+
+        return ErrorKinds.CHECK_OK;
+    }
+
+    // 従業員パスワードの入力チェック(ハッシュ化はしない 一括登録でも使用する)
+    public ErrorKinds passwordCheck(Employee employee) {
+
         // 従業員パスワードの半角英数字チェック処理
         if (isHalfSizeCheckError(employee)) {
 
@@ -127,8 +166,6 @@ public class EmployeeService {
             return ErrorKinds.RANGECHECK_ERROR;
         }
 
-        employee.setPassword(passwordEncoder.encode(employee.getPassword()));
-
         return ErrorKinds.CHECK_OK;
     }
 
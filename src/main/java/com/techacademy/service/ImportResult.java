@@ -0,0 +1,67 @@
+package com.techacademy.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.techacademy.constants.ErrorKinds;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// CSV一括登録の結果(登録件数と行ごとのエラー)
+@Getter
+public class ImportResult {
+
+    // 画面に表示するエラーの上限(件数はすべて数える)
+    static final int MAX_ERRORS = 1000;
+
+    // 行番号順
+    private static final Comparator<RowError> BY_ROW = Comparator.comparingInt(RowError::getRow);
+
+    // 登録件数
+    private int imported;
+
+    // エラー件数
+    private int errorCount;
+
+    // 行ごとのエラー(行番号の小さい順にMAX_ERRORS件まで)
+    // 重複チェックのエラーは登録時(CHUNK_SIZE行ごと)に追加され、行番号順とならないため、
+    // 行番号の大きい順に並べて保持し、上限を超えた場合は行番号の最も大きいエラーから除く
+    private final PriorityQueue<RowError> errors = new PriorityQueue<>(BY_ROW.reversed());
+
+    void addImported(int count) {
+        imported += count;
+    }
+
+    void addError(int row, ErrorKinds kind, String message) {
+        errorCount++;
+        errors.add(new RowError(row, kind, message));
+        if (errors.size() > MAX_ERRORS) {
+            errors.poll();
+        }
+    }
+
+    // 行ごとのエラー(行番号順)
+    public List<RowError> getErrors() {
+        List<RowError> sorted = new ArrayList<>(errors);
+        sorted.sort(BY_ROW);
+        return sorted;
+    }
+
+    // 行ごとのエラー(行番号はファイルの行で、ヘッダ行を1行目とする 値に改行を含むレコードは開始行)
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+
+        // 行番号
+        private final int row;
+
+        // エラー種別
+        private final ErrorKinds kind;
+
+        // エラーメッセージ
+        private final String message;
+    }
+}
@@ -0,0 +1,458 @@
+package com.techacademy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.BoundedPasswordEncoder;
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.constants.ErrorMessage;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.ReportKeyView;
+import com.techacademy.repository.ReportRepository;
+import com.techacademy.repository.ReportSearchRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// 従業員・日報のCSV一括登録
+// ファイルは1行ずつ読み込んで入力チェックし、CHUNK_SIZE行ごとに重複チェック(IN句のクエリ1回)と登録(JDBCバッチ)を行う
+// 入力に誤りのある行は登録せず、行番号とエラー種別を結果として返す(正しい行は登録する)
+// パスワードのハッシュ化はログインと別のスレッドプールで行い、一括登録でログインを待たせない
+@Service
+@Timed(value = "app.service", description = "サービスの処理時間")
+public class ImportService implements DisposableBean {
+
+    // 1回のトランザクションで登録する行数(hibernate.jdbc.batch_sizeの倍数とする)
+    static final int CHUNK_SIZE = 200;
+
+    // EntityManagerを直接使用した場合の例外の変換
+    private static final PersistenceExceptionTranslator EXCEPTION_TRANSLATOR = new HibernateJpaDialect();
+
+    // 従業員CSVの列
+    private static final String CODE = "社員番号";
+    private static final String NAME = "氏名";
+    private static final String ROLE = "権限";
+    private static final String PASSWORD = "パスワード";
+
+    // 日報CSVの列(日報CSV出力と同じ列名で、それ以外の列は読み飛ばす)
+    private static final String DATE = "日付";
+    private static final String TITLE = "タイトル";
+    private static final String CONTENT = "内容";
+
+    // 入力チェックエラーの項目名
+    private static final Map<String, String> LABELS = Map.of("code", CODE, "name", NAME, "title", TITLE, "content",
+            CONTENT);
+
+    private final EmployeeRepository employeeRepository;
+    private final ReportRepository reportRepository;
+    private final ReportSearchRepository reportSearchRepository;
+    private final ReportSummaryService reportSummaryService;
+    private final EmployeeService employeeService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    @Autowired
+    public ImportService(EmployeeRepository employeeRepository, ReportRepository reportRepository,
+            ReportSearchRepository reportSearchRepository, ReportSummaryService reportSummaryService,
+            EmployeeService employeeService,
+            BoundedPasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate,
+            EntityManager entityManager, Validator validator,
+            @Value("${app.import.password-pool-size:2}") int passwordPoolSize,
+            @Value("${app.import.password-queue-capacity:" + CHUNK_SIZE + "}") int passwordQueueCapacity,
+            @Value("${app.import.password-queue-timeout:30s}") Duration passwordQueueTimeout,
+            @Value("${app.import.password-result-timeout:1m}") Duration passwordResultTimeout) {
+        this.employeeRepository = employeeRepository;
+        this.reportRepository = reportRepository;
+        this.reportSearchRepository = reportSearchRepository;
+        this.reportSummaryService = reportSummaryService;
+        this.employeeService = employeeService;
+        this.passwordEncoder = passwordEncoder.withPool(passwordPoolSize, passwordQueueCapacity, passwordQueueTimeout,
+                passwordResultTimeout, "import-password-hash");
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.validator = validator;
+    }
+
+    // 従業員の一括登録(列: 社員番号,氏名,権限,パスワード)
+    public ImportResult importEmployees(InputStream inputStream) throws IOException {
+        ImportResult result = new ImportResult();
+        CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = readHeader(reader, result, CODE, NAME, ROLE, PASSWORD);
+        if (columns == null) {
+            return result;
+        }
+
+        Set<String> codesInFile = new HashSet<>();
+        List<Row<Employee>> chunk = new ArrayList<>();
+        for (List<String> record; (record = reader.readRecord()) != null;) {
+            // 値に改行を含むレコードがあってもファイルの行と一致するよう、レコードの開始行とする
+            int rowNumber = reader.getLineNumber();
+            if (isEmptyRecord(record)) {
+                continue;
+            }
+            Employee employee = toEmployee(rowNumber, record, columns, result);
+            if (employee == null) {
+                continue;
+            }
+            // ファイル内での社員番号の重複チェック
+            if (!codesInFile.add(employee.getCode())) {
+                addError(result, rowNumber, ErrorKinds.DUPLICATE_ERROR, null);
+                continue;
+            }
+            chunk.add(new Row<>(rowNumber, employee));
+            if (chunk.size() == CHUNK_SIZE) {
+                saveEmployees(chunk, result);
+                chunk.clear();
+            }
+        }
+        saveEmployees(chunk, result);
+        return result;
+    }
+
+    // 日報の一括登録(列: 日付,社員番号,タイトル,内容 日報CSV出力のファイルも読み込める)
+    public ImportResult importReports(InputStream inputStream) throws IOException {
+        ImportResult result = new ImportResult();
+        CsvReader reader = new CsvReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = readHeader(reader, result, DATE, CODE, TITLE, CONTENT);
+        if (columns == null) {
+            return result;
+        }
+
+        Set<String> keysInFile = new HashSet<>();
+        List<Row<Report>> chunk = new ArrayList<>();
+        for (List<String> record; (record = reader.readRecord()) != null;) {
+            // 値に改行を含むレコードがあってもファイルの行と一致するよう、レコードの開始行とする
+            int rowNumber = reader.getLineNumber();
+            if (isEmptyRecord(record)) {
+                continue;
+            }
+            Report report = toReport(rowNumber, record, columns, result);
+            if (report == null) {
+                continue;
+            }
+            // ファイル内での同一従業員・同一日付の重複チェック
+            if (!keysInFile.add(key(report.getEmployee().getCode(), report.getReportDate()))) {
+                addError(result, rowNumber, ErrorKinds.DATECHECK_ERROR, null);
+                continue;
+            }
+            chunk.add(new Row<>(rowNumber, report));
+            if (chunk.size() == CHUNK_SIZE) {
+                saveReports(chunk, result);
+                chunk.clear();
+            }
+        }
+        saveReports(chunk, result);
+        return result;
+    }
+
+    // 1行分の従業員の入力チェック(エラーの場合はnull)
+    private Employee toEmployee(int rowNumber, List<String> record, Map<String, Integer> columns,
+            ImportResult result) {
+        Employee employee = new Employee();
+        employee.setCode(value(record, columns, CODE));
+        employee.setName(value(record, columns, NAME));
+        employee.setPassword(value(record, columns, PASSWORD));
+        String role = value(record, columns, ROLE);
+
+        String blank = firstBlank(CODE, employee.getCode(), NAME, employee.getName(), ROLE, role, PASSWORD,
+                employee.getPassword());
+        if (blank != null) {
+            addError(result, rowNumber, ErrorKinds.BLANK_ERROR, blank + ": " + ErrorMessage.getErrorValue(ErrorKinds.BLANK_ERROR));
+            return null;
+        }
+
+        // 権限はコード(GENERAL/ADMIN)と表示名(一般/管理者)のどちらでも指定できる
+        for (Employee.Role candidate : Employee.Role.values()) {
+            if (candidate.name().equalsIgnoreCase(role) || candidate.getValue().equals(role)) {
+                employee.setRole(candidate);
+            }
+        }
+        if (employee.getRole() == null) {
+            addError(result, rowNumber, ErrorKinds.VALIDATION_ERROR, ROLE + ": 一般または管理者を指定してください");
+            return null;
+        }
+
+        if (!isValid(rowNumber, employee, result, "code", "name")) {
+            return null;
+        }
+
+        ErrorKinds passwordResult = employeeService.passwordCheck(employee);
+        if (ErrorKinds.CHECK_OK != passwordResult) {
+            addError(result, rowNumber, passwordResult, null);
+            return null;
+        }
+        return employee;
+    }
+
+    // 1行分の日報の入力チェック(エラーの場合はnull)
+    private Report toReport(int rowNumber, List<String> record, Map<String, Integer> columns, ImportResult result) {
+        String date = value(record, columns, DATE);
+        String code = value(record, columns, CODE);
+        Report report = new Report();
+        // 日報CSV出力で数式対策として付けた先頭の'は取り除く
+        report.setTitle(ReportExportService.removeFormulaPrefix(value(record, columns, TITLE)));
+        report.setContent(ReportExportService.removeFormulaPrefix(value(record, columns, CONTENT)));
+
+        String blank = firstBlank(DATE, date, CODE, code, TITLE, report.getTitle(), CONTENT, report.getContent());
+        if (blank != null) {
+            addError(result, rowNumber, ErrorKinds.BLANK_ERROR, blank + ": " + ErrorMessage.getErrorValue(ErrorKinds.BLANK_ERROR));
+            return null;
+        }
+
+        try {
+            report.setReportDate(LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            addError(result, rowNumber, ErrorKinds.VALIDATION_ERROR, DATE + ": yyyy-MM-dd形式で入力してください");
+            return null;
+        }
+
+        if (!isValid(rowNumber, report, result, "title", "content")) {
+            return null;
+        }
+
+        // 従業員は登録時に存在をまとめて確認するため、ここでは社員番号のみ設定する
+        Employee employee = new Employee();
+        employee.setCode(code);
+        report.setEmployee(employee);
+        return report;
+    }
+
+    // 登録済みの社員番号を除いて、パスワードを並列にハッシュ化してから1トランザクションで登録する
+    private void saveEmployees(List<Row<Employee>> chunk, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // 論理削除済みの社員番号も主キーが重複するため登録できない
+        Set<String> existingCodes = new HashSet<>(
+                employeeRepository.findExistingCodes(chunk.stream().map(row -> row.entity().getCode()).toList()));
+        List<Row<Employee>> targets = new ArrayList<>();
+        for (Row<Employee> row : chunk) {
+            if (existingCodes.contains(row.entity().getCode())) {
+                addError(result, row.number(), ErrorKinds.DUPLICATE_ERROR, null);
+            } else {
+                targets.add(row);
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        List<String> encodedPasswords;
+        try {
+            encodedPasswords = passwordEncoder
+                    .encodeAll(targets.stream().map(row -> row.entity().getPassword()).toList());
+        } catch (AuthenticationServiceException e) {
+            // 他の一括登録と重なり待ち行列があふれた場合は、このCHUNK_SIZE行分を登録せずエラーとする
+            targets.forEach(row -> addError(result, row.number(), ErrorKinds.BUSY_ERROR, null));
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < targets.size(); i++) {
+            Employee employee = targets.get(i).entity();
+            employee.setPassword(encodedPasswords.get(i));
+            employee.setDeleteFlg(false);
+            employee.setCreatedAt(now);
+            employee.setUpdatedAt(now);
+        }
+
+        persistRows(targets, employees -> employees.forEach(entityManager::persist),
+                employee -> employee.setVersion(null), ErrorKinds.DUPLICATE_ERROR, result);
+    }
+
+    // 従業員の存在と、同一従業員・同一日付の日報の有無を確認してから1トランザクションで登録する
+    private void saveReports(List<Row<Report>> chunk, ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> codes = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (Row<Report> row : chunk) {
+            codes.add(row.entity().getEmployee().getCode());
+            dates.add(row.entity().getReportDate());
+        }
+        // 有効な従業員(論理削除済みを除く)
+        Set<String> employeeCodes = new HashSet<>();
+        employeeRepository.findAllActiveById(codes).forEach(employee -> employeeCodes.add(employee.getCode()));
+        // 登録済みの従業員・日付の組み合わせ(社員番号と日付それぞれのIN句のため、対象外の組み合わせも含む)
+        Set<String> existingKeys = new HashSet<>();
+        for (ReportKeyView view : reportRepository.findKeys(codes, dates)) {
+            existingKeys.add(key(view.getEmployeeCode(), view.getReportDate()));
+        }
+
+        List<Row<Report>> targets = new ArrayList<>();
+        for (Row<Report> row : chunk) {
+            Report report = row.entity();
+            String code = report.getEmployee().getCode();
+            if (!employeeCodes.contains(code)) {
+                addError(result, row.number(), ErrorKinds.VALIDATION_ERROR, CODE + ": 登録されていない社員番号です");
+            } else if (existingKeys.contains(key(code, report.getReportDate()))) {
+                addError(result, row.number(), ErrorKinds.DATECHECK_ERROR, null);
+            } else {
+                targets.add(row);
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        persistRows(targets, reports -> {
+            for (Report report : reports) {
+                // 従業員は読み込まず、参照(社員番号)のみ設定する
+                report.setEmployee(entityManager.getReference(Employee.class, report.getEmployee().getCode()));
+                report.setDeleteFlg(false);
+                report.setCreatedAt(now);
+                report.setUpdatedAt(now);
+                entityManager.persist(report);
+                reportSearchRepository.index(report);
+            }
+            // 従業員・月ごとの集計は、まとめて差分を加算する
+            reportSummaryService.addAll(reports);
+        }, report -> {
+            report.setId(null);
+            report.setVersion(null);
+        }, ErrorKinds.DATECHECK_ERROR, result);
+    }
+
+    // 1トランザクションでまとめて登録する
+    // 確認後に他の処理が同じデータを登録した等で一意制約違反となった場合は、1行ずつ別のトランザクションで登録し直し、
+    // 違反した行のみエラー(duplicateKind)とする(reset: ロールバックで採番済みとなった値を未登録の状態に戻す)
+    private <T> void persistRows(List<Row<T>> rows, Consumer<List<T>> action, Consumer<T> reset,
+            ErrorKinds duplicateKind, ImportResult result) {
+        try {
+            persist(() -> action.accept(rows.stream().map(Row::entity).toList()));
+            result.addImported(rows.size());
+            return;
+        } catch (DataIntegrityViolationException e) {
+            // 1行ずつ登録し直す
+        }
+        for (Row<T> row : rows) {
+            reset.accept(row.entity());
+            try {
+                persist(() -> action.accept(List.of(row.entity())));
+                result.addImported(1);
+            } catch (DataIntegrityViolationException e) {
+                addError(result, row.number(), duplicateKind, null);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        passwordEncoder.destroy();
+    }
+
+    // 1トランザクションで登録する(INSERTはhibernate.jdbc.batch_size件ごとのJDBCバッチで実行される)
+    // 一括登録したデータは直後に参照されるとは限らないため、2次キャッシュには入れない
+    // 制約違反はリポジトリ経由の場合と同じくDataIntegrityViolationExceptionに変換する
+    private void persist(Runnable action) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                action.run();
+                entityManager.flush();
+            });
+        } catch (PersistenceException e) {
+            DataAccessException translated = EXCEPTION_TRANSLATOR.translateExceptionIfPossible(e);
+            throw translated != null ? translated : e;
+        }
+    }
+
+    // ヘッダ行から列名と位置の対応を作成する(必須の列がない場合はエラーとしてnull)
+    private Map<String, Integer> readHeader(CsvReader reader, ImportResult result, String... required)
+            throws IOException {
+        List<String> header = reader.readRecord();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                columns.putIfAbsent(header.get(i).strip(), i);
+            }
+        }
+        for (String column : required) {
+            if (!columns.containsKey(column)) {
+                addError(result, 1, ErrorKinds.VALIDATION_ERROR, "ヘッダ行に「" + column + "」の列がありません");
+                return null;
+            }
+        }
+        return columns;
+    }
+
+    // 指定した項目のBean Validationのチェック
+    private boolean isValid(int rowNumber, Object entity, ImportResult result, String... properties) {
+        for (String property : properties) {
+            Set<ConstraintViolation<Object>> violations = validator.validateProperty(entity, property);
+            if (!violations.isEmpty()) {
+                addError(result, rowNumber, ErrorKinds.VALIDATION_ERROR,
+                        LABELS.get(property) + ": " + violations.iterator().next().getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // エラーを追加する(詳細なメッセージがない場合はエラー種別のメッセージ)
+    private void addError(ImportResult result, int rowNumber, ErrorKinds kind, String message) {
+        result.addError(rowNumber, kind, message != null ? message : ErrorMessage.getErrorValue(kind));
+    }
+
+    // 値が空の最初の項目名(名前と値を交互に指定する すべて入力済みの場合はnull)
+    private static String firstBlank(String... namesAndValues) {
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (namesAndValues[i + 1] == null || namesAndValues[i + 1].isEmpty()) {
+                return namesAndValues[i];
+            }
+        }
+        return null;
+    }
+
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        return index < record.size() ? record.get(index).strip() : null;
+    }
+
+    // 空行(ファイル末尾の改行など)
+    private static boolean isEmptyRecord(List<String> record) {
+        return record.size() == 1 && record.get(0).isBlank();
+    }
+
+    private static String key(String employeeCode, LocalDate reportDate) {
+        return employeeCode + "/" + reportDate;
+    }
+
+    // 行番号と、読み込んだ行のエンティティ
+    private record Row<T>(int number, T entity) {
+    }
+}
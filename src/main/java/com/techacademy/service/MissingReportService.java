@@ -0,0 +1,186 @@
+package com.techacademy.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.entity.MissingReport;
+import com.techacademy.entity.MissingReportRun;
+import com.techacademy.repository.EmployeeListView;
+import com.techacademy.repository.EmployeeRepository;
+import com.techacademy.repository.MissingReportRepository;
+import com.techacademy.repository.MissingReportRunRepository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+
+// 日報の未提出検出
+// 日報のない従業員は反結合(NOT EXISTS)のクエリで社員番号順にCHUNK_SIZE件ずつ取得し、チャンクごとに結果を登録する
+// 従業員数に関わらずメモリ使用量・1トランザクションの大きさは一定
+// 同じ日の検出は実行結果の行のロックで直列化し、実行中は結果画面に検出中と表示する
+@Service
+@Timed(value = "app.service", description = "サービスの処理時間")
+public class MissingReportService {
+
+    // 1回のクエリ・トランザクションで処理する従業員数
+    static final int CHUNK_SIZE = 500;
+
+    // 実行中とみなす時間の上限(異常終了して実行中のまま残った実行結果は、これを過ぎると再実行できる)
+    static final Duration RUN_TIMEOUT = Duration.ofHours(1);
+
+    private final EmployeeRepository employeeRepository;
+    private final MissingReportRepository missingReportRepository;
+    private final MissingReportRunRepository missingReportRunRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Timer timer;
+    private final AtomicInteger lastMissingCount = new AtomicInteger();
+
+    @Autowired
+    public MissingReportService(EmployeeRepository employeeRepository,
+            MissingReportRepository missingReportRepository, MissingReportRunRepository missingReportRunRepository,
+            TransactionTemplate transactionTemplate, EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.missingReportRepository = missingReportRepository;
+        this.missingReportRunRepository = missingReportRunRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        // 検出ジョブの処理時間と、直近の実行で検出した未提出の従業員数
+        this.timer = Timer.builder("app.job.missing-report").description("日報の未提出検出ジョブの処理時間")
+                .register(meterRegistry);
+        Gauge.builder("app.job.missing-report.employees", lastMissingCount, AtomicInteger::get)
+                .description("直近の検出ジョブで検出した未提出の従業員数").register(meterRegistry);
+    }
+
+    // 前営業日の未提出を検出する(平日の朝に実行 app.missing-report.cronに"-"を指定すると実行しない)
+    @Scheduled(cron = "${app.missing-report.cron:0 0 6 * * MON-FRI}")
+    public void detectPreviousBusinessDay() {
+        detect(previousBusinessDay(LocalDate.now()));
+    }
+
+    // 指定した日の未提出を検出して登録する(同じ日の前回の結果は置き換える) 未提出の従業員数を返す
+    // 同じ日の検出を他のサーバー・スレッドが実行中の場合は実行せず、空を返す
+    public OptionalInt detect(LocalDate reportDate) {
+        long start = System.nanoTime();
+        if (!start(reportDate)) {
+            return OptionalInt.empty();
+        }
+        // 指定日の翌日0時より前に登録された従業員を対象とする
+        LocalDateTime registeredBefore = reportDate.plusDays(1).atStartOfDay();
+
+        int missingCount = 0;
+        try {
+            String afterCode = "";
+            List<EmployeeListView> chunk;
+            do {
+                chunk = employeeRepository.findWithoutReport(reportDate, registeredBefore, afterCode,
+                        PageRequest.of(0, CHUNK_SIZE));
+                if (!chunk.isEmpty()) {
+                    saveChunk(reportDate, chunk);
+                    missingCount += chunk.size();
+                    afterCode = chunk.get(chunk.size() - 1).getCode();
+                }
+            } while (chunk.size() == CHUNK_SIZE);
+        } catch (RuntimeException e) {
+            // 途中までの結果と実行結果を削除し、未実行の状態に戻す
+            transactionTemplate.executeWithoutResult(status -> {
+                missingReportRepository.deleteByReportDate(reportDate);
+                missingReportRunRepository.deleteById(reportDate);
+            });
+            throw e;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        lastMissingCount.set(missingCount);
+
+        // 実行結果を登録し、実行中の状態を解除する
+        MissingReportRun run = new MissingReportRun();
+        run.setReportDate(reportDate);
+        run.setExecutedAt(LocalDateTime.now());
+        run.setDurationMillis(Duration.ofNanos(elapsed).toMillis());
+        run.setMissingCount(missingCount);
+        transactionTemplate.executeWithoutResult(status -> missingReportRunRepository.save(run));
+        return OptionalInt.of(missingCount);
+    }
+
+    // 指定した日の未提出(社員番号順)
+    @Transactional(readOnly = true)
+    public List<MissingReport> findByReportDate(LocalDate reportDate) {
+        return missingReportRepository.findByReportDateOrderByEmployeeCode(reportDate);
+    }
+
+    // 指定した日の検出ジョブの実行結果(未実行の場合は空)
+    @Transactional(readOnly = true)
+    public Optional<MissingReportRun> findRun(LocalDate reportDate) {
+        return missingReportRunRepository.findById(reportDate);
+    }
+
+    // 前営業日(土日を除く 祝日は考慮しない)
+    public static LocalDate previousBusinessDay(LocalDate date) {
+        LocalDate previous = date.minusDays(1);
+        while (previous.getDayOfWeek() == DayOfWeek.SATURDAY || previous.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            previous = previous.minusDays(1);
+        }
+        return previous;
+    }
+
+    // 指定した日の検出を開始する(実行結果の行をロックして実行中とし、前回の結果を削除する)
+    // 他のサーバー・スレッドが実行中の場合はfalseを返す 実行中のまま上限時間を過ぎたもの(異常終了したもの)は再実行する
+    private boolean start(LocalDate reportDate) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                MissingReportRun run = missingReportRunRepository.findForUpdate(reportDate).orElse(null);
+                if (run == null) {
+                    run = new MissingReportRun();
+                    run.setReportDate(reportDate);
+                } else if (run.isRunning() && run.getExecutedAt().isAfter(now.minus(RUN_TIMEOUT))) {
+                    return false;
+                }
+                run.setExecutedAt(now);
+                run.setRunning(true);
+                missingReportRunRepository.saveAndFlush(run);
+                missingReportRepository.deleteByReportDate(reportDate);
+                return true;
+            }));
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // 同じ日の初回の検出を他のサーバー・スレッドが同時に開始した(実行結果の行の登録が競合した)
+            return false;
+        }
+    }
+
+    // 1チャンク分の未提出を1トランザクションで登録する(INSERTはJDBCバッチで実行される)
+    private void saveChunk(LocalDate reportDate, List<EmployeeListView> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (EmployeeListView employee : chunk) {
+                MissingReport missingReport = new MissingReport();
+                missingReport.setReportDate(reportDate);
+                missingReport.setEmployeeCode(employee.getCode());
+                missingReport.setEmployeeName(employee.getName());
+                entityManager.persist(missingReport);
+            }
+            entityManager.flush();
+            // 登録済みのチャンクを永続化コンテキストから外し、従業員数分のエンティティが残らないようにする
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.techacademy.service;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 従業員ごとの月の日報集計(ダッシュボード表示用)
+@Getter
+@AllArgsConstructor
+public class MonthlySummary {
+
+    // 社員番号
+    private final String employeeCode;
+
+    // 氏名
+    private final String employeeName;
+
+    // 日報の件数
+    private final int reportCount;
+
+    // 内容の平均文字数(日報がない場合は0)
+    private final long averageContentLength;
+
+    // 日報のない平日(日付の日の部分 本日まで)
+    private final List<Integer> missingDays;
+}
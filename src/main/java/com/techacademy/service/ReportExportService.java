@@ -0,0 +1,112 @@
+package com.techacademy.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+
+// 日報のCSV出力
+// 全件をリストにせず、DBから1件ずつ読み込んでそのまま書き出すため、件数に関わらずメモリ使用量は一定
+@Service
+@Timed(value = "app.service", description = "サービスの処理時間")
+public class ReportExportService {
+
+    private static final String[] HEADER = { "日付", "社員番号", "氏名", "タイトル", "内容", "登録日時", "更新日時" };
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ReportRepository reportRepository;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ReportExportService(ReportRepository reportRepository, EntityManager entityManager) {
+        this.reportRepository = reportRepository;
+        this.entityManager = entityManager;
+    }
+
+    // 指定期間(従業員の指定は任意)の日報をCSV(UTF-8 BOM付き、Excelで開ける形式)で出力する
+    @Transactional(readOnly = true)
+    public void exportCsv(LocalDate from, LocalDate to, String employeeCode, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        // Excelで文字化けしないようBOMを付ける
+        writer.write('\uFEFF');
+        writeRow(writer, HEADER);
+
+        try (Stream<Report> reports = employeeCode == null || employeeCode.isEmpty()
+                ? reportRepository.streamForExport(from, to)
+                : reportRepository.streamForExportByEmployee(from, to, employeeCode)) {
+            reports.forEach(report -> {
+                try {
+                    writeRow(writer, report.getReportDate().toString(), report.getEmployee().getCode(),
+                            report.getEmployee().getName(), report.getTitle(), report.getContent(),
+                            DATE_TIME.format(report.getCreatedAt()), DATE_TIME.format(report.getUpdatedAt()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // 書き出した日報を永続化コンテキストから外し、読み込んだ件数分のメモリが残らないようにする
+                entityManager.detach(report);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // 1行を書き出す(カンマ・改行・ダブルクォートを含む値はダブルクォートで囲む)
+    // 表計算ソフトで数式として実行される値(=, +, -, @, タブ, CRで始まる値)は先頭に'を付けて文字列とし、ダブルクォートで囲む
+    private void writeRow(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i] == null ? "" : values[i];
+            boolean formula = isFormula(value);
+            if (formula) {
+                value = "'" + value;
+            }
+            if (formula || value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // 出力時に数式とならないよう先頭に付けた'を取り除く(出力したCSVを一括登録で読み込む場合)
+    static String removeFormulaPrefix(String value) {
+        if (value != null && value.length() > 1 && value.charAt(0) == '\'' && isFormula(value.substring(1))) {
+            return value.substring(1);
+        }
+        return value;
+    }
+
+    // 表計算ソフトで数式として解釈される値であればtrue
+    private static boolean isFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
@@ -1,44 +1,73 @@
 package com.techacademy.service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Service;
 
 import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportListStamp;
+import com.techacademy.repository.ReportListView;
 import com.techacademy.repository.ReportRepository;
+import com.techacademy.repository.ReportSearchRepository;
+import com.techacademy.repository.ReportStamp;
 
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+
 @Service
+@Timed(value = "app.service", description = "サービスの処理時間")
 public class ReportService {
 
+    // 日報一覧の1ページあたりの件数
+    public static final int PAGE_SIZE = 20;
+
+    // 全文検索で表示する件数の上限(関連度の上位N件を取得するため、上限を超える深いページは表示しない)
+    static final int MAX_SEARCH_RESULTS = 1000;
+
     private final ReportRepository reportRepository;
+    private final ReportSearchRepository reportSearchRepository;
+    private final ReportSummaryService reportSummaryService;
+    private final EntityManager entityManager;
 
     @Autowired
-    public ReportService(ReportRepository reportRepository) {
+    public ReportService(ReportRepository reportRepository, ReportSearchRepository reportSearchRepository,
+            ReportSummaryService reportSummaryService, EntityManager entityManager) {
         this.reportRepository = reportRepository;
+        this.reportSearchRepository = reportSearchRepository;
+        this.reportSummaryService = reportSummaryService;
+        this.entityManager = entityManager;
     }
 
     // 日報保存
     @Transactional
     public ErrorKinds save(Report report, @AuthenticationPrincipal UserDetail userDetail) {
 
+        // 日報の従業員はログイン中の従業員とする(社員番号のみで参照し、従業員は読み込まない)
+        report.setEmployee(entityManager.getReference(Employee.class, userDetail.getCode()));
+
         // ログイン中の従業員かつ入力した日付の日報データが存在する場合エラー
-        List<Report> list = findByEmployee(userDetail.getEmployee());
-        if(list != null) {
-            for(Report dupReport: list) {
-                if(dupReport.getReportDate().equals(report.getReportDate())) {
+        // (同時登録された場合は一意制約違反となり、コントローラ側で同じエラーとして扱う)
+        if (reportRepository.existsByEmployeeAndReportDate(report.getEmployee(), report.getReportDate())) {
             return ErrorKinds.DATECHECK_ERROR; // エラーメッセージを表示して再度入力画面に戻る
-
-                }
-            }
         }
 
         report.setDeleteFlg(false); // 削除フラグをfalseに設定します。
@@ -47,6 +76,8 @@ public class ReportService {
         report.setUpdatedAt(now); // 更新日時を設定します。
 
         reportRepository.save(report); // レポートをデータベースに保存します。
+        reportSearchRepository.index(report); // 全文検索のインデックスに反映します。
+        reportSummaryService.add(report); // 従業員・月ごとの集計に反映します。
         return ErrorKinds.SUCCESS;
     }
 
@@ -57,16 +88,23 @@ public class ReportService {
 
         // 指定されたidのレポートをデータベースから取得します。
         Report oldReport = findById(id);
-        // 同じ日付とユーザーのレポートが既に存在するかを確認します。
-        List<Report> existingReport = reportRepository.findByReportDateAndEmployee(report.getReportDate(),
-                userDetail.getEmployee());
-        // もし存在する且つ閲覧中のデータ以外の場合、エラーメッセージを返します。
-        if (existingReport != null && !existingReport.isEmpty()) {
-            Report firstReport = existingReport.get(0);
-            if (firstReport.getId() != id) {
-                return ErrorKinds.DATECHECK_ERROR;
-            }
+        // 削除済み・存在しない場合はエラーを返します。
+        if (oldReport == null) {
+            return ErrorKinds.NOT_FOUND_ERROR;
         }
+        // 画面表示後に他の利用者が更新していた場合は、上書きせずにエラーを返します。
+        // (確認後、コミットまでの間に更新された場合はUPDATEのバージョン条件で検出され、例外となります)
+        if (!Objects.equals(oldReport.getVersion(), report.getVersion())) {
+            return ErrorKinds.OPTIMISTIC_LOCK_ERROR;
+        }
+        // 同じ日付で日報の作成者の別のレポートが既に存在する場合、エラーメッセージを返します。
+        if (reportRepository.existsByEmployeeAndReportDateAndIdNot(oldReport.getEmployee(), report.getReportDate(),
+                id)) {
+            return ErrorKinds.DATECHECK_ERROR;
+        }
+        // 集計の差分計算のため、更新前の日付・内容を保持します。
+        LocalDate oldReportDate = oldReport.getReportDate();
+        String oldContent = oldReport.getContent();
         // oldReportの各フィールドを新しい値で更新します（setReportDate, setTitle, setContent）。
         oldReport.setReportDate(report.getReportDate());
         oldReport.setTitle(report.getTitle());
@@ -77,6 +115,10 @@ public class ReportService {
         oldReport.setUpdatedAt(now);
         // 更新されたレポートをデータベースに保存します。
         reportRepository.save(oldReport);
+        // 全文検索のインデックスに反映します。
+        reportSearchRepository.index(oldReport);
+        // 従業員・月ごとの集計に反映します。
+        reportSummaryService.replace(oldReportDate, oldContent, oldReport);
         return ErrorKinds.SUCCESS;
     }
 
@@ -87,21 +129,38 @@ public class ReportService {
 
         // 指定されたidのレポートをデータベースから取得します
         Report report = findById(id);
+        // 削除済み・存在しない場合はエラーを返します。
+        if (report == null) {
+            return ErrorKinds.NOT_FOUND_ERROR;
+        }
         // 現在の日時を取得します。
         LocalDateTime now = LocalDateTime.now();
         // 更新日時を設定します。
         report.setUpdatedAt(now);
         // 削除フラグをtrueに設定します。
         report.setDeleteFlg(true);
+        // 全文検索のインデックスから除きます。
+        reportSearchRepository.remove(id);
+        // 従業員・月ごとの集計から除きます。
+        reportSummaryService.remove(report);
 
         return ErrorKinds.SUCCESS;
     }
 
+    // 従業員の日報を一括削除
+    @Transactional
+    // 指定された従業員の日報をまとめて論理削除し、削除した件数を返します。
+    public int deleteByEmployee(Employee employee) {
+        reportSearchRepository.removeByEmployee(employee.getCode());
+        reportSummaryService.removeByEmployee(employee.getCode());
+        return reportRepository.softDeleteByEmployee(employee, LocalDateTime.now());
+    }
+
     // 日報一覧表示処理
     // すべてのレポートを取得してリストとして返します。
     public List<Report> findAll() {
-        // データベースからすべてのレポートを取得します。このメソッドはIterable<Report>を返します。
-        Iterable<Report> iterable = reportRepository.findAll();
+        // データベースからすべてのレポートを従業員と合わせて1クエリで取得します。
+        Iterable<Report> iterable = reportRepository.findAllWithEmployee();
         // 空のリストを作成します。
         List<Report> list = new ArrayList<>();
         // iterableの各要素をリストに追加します。forEachメソッドを使って、list::addというメソッド参照を渡しています。
@@ -110,15 +169,91 @@ public class ReportService {
         return list;
     }
 
+    // 日報一覧の先頭から指定件数を取得
+    @Transactional(readOnly = true)
+    public List<ReportListView> findFirstPage(int size) {
+        return reportRepository.findFirstPage(PageRequest.of(0, size));
+    }
+
+    // 指定した日報(日付, ID)の次から指定件数を取得
+    @Transactional(readOnly = true)
+    public List<ReportListView> findNextPage(LocalDate reportDate, Integer id, int size) {
+        return reportRepository.findNextPage(reportDate, id, PageRequest.of(0, size));
+    }
+
+    // 指定した日報(日付, ID)の前から指定件数を取得(一覧と同じ降順 指定した日報から遠いものが先頭)
+    @Transactional(readOnly = true)
+    public List<ReportListView> findPreviousPage(LocalDate reportDate, Integer id, int size) {
+        List<ReportListView> list = new ArrayList<>(
+                reportRepository.findPreviousPage(reportDate, id, PageRequest.of(0, size)));
+        // 昇順で取得しているため一覧と同じ降順に並べ直す
+        Collections.reverse(list);
+        return list;
+    }
+
+    // 日報の全文検索(タイトル・内容) 関連度の高い順に1ページ分を取得する
+    // 件数は数えず、1件多く取得して次ページの有無を判定する
+    @Transactional(readOnly = true)
+    public Slice<ReportListView> search(String keyword, int page) {
+        Pageable pageable = PageRequest.of(page, PAGE_SIZE);
+        if (keyword == null || keyword.isBlank() || pageable.getOffset() >= MAX_SEARCH_RESULTS) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        List<Integer> ids = reportSearchRepository.searchIds(keyword, (int) pageable.getOffset(), PAGE_SIZE + 1);
+        boolean hasNext = ids.size() > PAGE_SIZE && pageable.getOffset() + PAGE_SIZE < MAX_SEARCH_RESULTS;
+        if (hasNext) {
+            ids = ids.subList(0, PAGE_SIZE);
+        }
+        if (ids.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        // 表示列はIDで1回にまとめて取得し、検索結果の順に並べ直す(論理削除済みの日報は取得されず除外される)
+        Map<Integer, ReportListView> views = reportRepository.findListViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ReportListView::getId, Function.identity()));
+        List<ReportListView> content = ids.stream().map(views::get).filter(Objects::nonNull).toList();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    // 日報一覧の更新状況(件数と最終更新日時)を取得
+    @Transactional(readOnly = true)
+    public ReportListStamp findListStamp() {
+        return reportRepository.findListStamp();
+    }
+
+    // 日報詳細の更新状況(日報と従業員のバージョン・更新日時)を取得
+    @Transactional(readOnly = true)
+    public Optional<ReportStamp> findStamp(Integer id) {
+        return reportRepository.findStampById(id);
+    }
+
+    // 日報の件数を取得(COUNTクエリ1回)
+    @Transactional(readOnly = true)
+    public long count() {
+        return reportRepository.count();
+    }
+
     // 1件を検索
     public Report findById(Integer id) {
-        // findByIdで検索
-        Optional<Report> option = reportRepository.findById(id);
+        // 有効な日報を検索(2次キャッシュから取得した削除済みの日報も除外される)
+        Optional<Report> option = reportRepository.findActiveById(id);
         // 取得できなかった場合はnullを返す
         Report report = option.orElse(null);
         return report;
     }
 
+    // 1件を従業員と合わせて検索(画面表示用)
+    public Report findWithEmployeeById(Integer id) {
+        return reportRepository.findWithEmployeeById(id).orElse(null);
+    }
+
+    // 1件を従業員と合わせてプライマリから検索(登録・更新直後の応答用)
+    // 読み取り専用としないトランザクションで読み込み、レプリカへの反映を待たずに更新結果を返す
+    @Transactional
+    public Report findWithEmployeeByIdFromPrimary(Integer id) {
+        return reportRepository.findWithEmployeeById(id).orElse(null);
+    }
+
     // 指定された従業員に関連するレポートのリストを返します。
     public List<Report> findByEmployee(Employee employee) {
         // 指定された従業員に関連するレポートをデータベースから取得し、そのリストを返します。
@@ -0,0 +1,185 @@
+package com.techacademy.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.techacademy.entity.Report;
+import com.techacademy.entity.ReportMonthlySummary;
+import com.techacademy.repository.ReportMonthlySummaryRepository;
+import com.techacademy.repository.ReportMonthlySummaryView;
+import com.techacademy.repository.ReportRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+
+// 従業員・月ごとの日報集計(ダッシュボード)
+// 集計テーブルは日報の登録・更新・削除と同じトランザクションで差分を加算して更新するため、
+// ダッシュボードの表示は従業員数(×月数)分の行を読むだけで、日報テーブルは読まない
+@Service
+@Timed(value = "app.service", description = "サービスの処理時間")
+public class ReportSummaryService {
+
+    // 差分の加算順(複数行を更新する際に常に同じ順で行ロックを取得し、デッドロックを避ける)
+    private static final Comparator<ReportMonthlySummary.Key> KEY_ORDER = Comparator
+            .comparing(ReportMonthlySummary.Key::getEmployeeCode)
+            .thenComparingInt(ReportMonthlySummary.Key::getReportMonth);
+
+    private final ReportMonthlySummaryRepository summaryRepository;
+    private final ReportRepository reportRepository;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public ReportSummaryService(ReportMonthlySummaryRepository summaryRepository, ReportRepository reportRepository,
+            EntityManager entityManager) {
+        this.summaryRepository = summaryRepository;
+        this.reportRepository = reportRepository;
+        this.entityManager = entityManager;
+    }
+
+    // 日報の登録を集計に反映する
+    @Transactional
+    public void add(Report report) {
+        addAll(List.of(report));
+    }
+
+    // 日報の一括登録を集計に反映する(従業員・月ごとにまとめて加算する)
+    @Transactional
+    public void addAll(Collection<Report> reports) {
+        Map<ReportMonthlySummary.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Report report : reports) {
+            accumulate(deltas, report.getEmployee().getCode(), report.getReportDate(), report.getContent(), 1);
+        }
+        apply(deltas);
+    }
+
+    // 日報の更新を集計に反映する(更新前の日付・内容の分を減算し、更新後の分を加算する)
+    @Transactional
+    public void replace(LocalDate oldReportDate, String oldContent, Report report) {
+        Map<ReportMonthlySummary.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        String employeeCode = report.getEmployee().getCode();
+        accumulate(deltas, employeeCode, oldReportDate, oldContent, -1);
+        accumulate(deltas, employeeCode, report.getReportDate(), report.getContent(), 1);
+        apply(deltas);
+    }
+
+    // 日報の削除を集計に反映する
+    @Transactional
+    public void remove(Report report) {
+        Map<ReportMonthlySummary.Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        accumulate(deltas, report.getEmployee().getCode(), report.getReportDate(), report.getContent(), -1);
+        apply(deltas);
+    }
+
+    // 従業員の日報の一括削除を集計に反映する
+    @Transactional
+    public void removeByEmployee(String employeeCode) {
+        summaryRepository.deleteByEmployeeCode(employeeCode);
+    }
+
+    // 指定した月の従業員ごとの集計(日報のない平日は本日までを対象とする)
+    @Transactional(readOnly = true)
+    public List<MonthlySummary> findMonthly(YearMonth month) {
+        List<MonthlySummary> summaries = new ArrayList<>();
+        for (ReportMonthlySummaryView view : summaryRepository.findViewsByReportMonth(toReportMonth(month))) {
+            int reportCount = view.getReportCount() == null ? 0 : view.getReportCount();
+            long contentLength = view.getContentLength() == null ? 0 : view.getContentLength();
+            int reportedDays = view.getReportedDays() == null ? 0 : view.getReportedDays();
+            summaries.add(new MonthlySummary(view.getEmployeeCode(), view.getEmployeeName(), reportCount,
+                    reportCount == 0 ? 0 : Math.round((double) contentLength / reportCount),
+                    missingDays(month, reportedDays)));
+        }
+        return summaries;
+    }
+
+    // 集計テーブルを日報テーブルから作り直す(GROUP BYでDB側で集計する)
+    @Transactional
+    public void rebuild() {
+        summaryRepository.deleteAllInBatch();
+        for (ReportMonthlySummaryView view : reportRepository.summarizeMonthly()) {
+            ReportMonthlySummary summary = new ReportMonthlySummary();
+            summary.setEmployeeCode(view.getEmployeeCode());
+            summary.setReportMonth(view.getReportMonth());
+            summary.setReportCount(view.getReportCount());
+            summary.setContentLength(view.getContentLength());
+            summary.setReportedDays(view.getReportedDays());
+            // 主キーを指定した新規行のため、merge(登録前のSELECT)ではなくpersistで登録する
+            entityManager.persist(summary);
+        }
+    }
+
+    // 起動時に集計テーブルが空であれば(初期データの投入直後など)日報から作成する
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (summaryRepository.count() == 0 && reportRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    // 年月をyyyyMM形式の数値にする
+    static int toReportMonth(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    // 日報のない平日(本日以前)
+    private static List<Integer> missingDays(YearMonth month, int reportedDays) {
+        List<Integer> days = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (LocalDate date = month.atDay(1); !date.isAfter(month.atEndOfMonth()) && !date.isAfter(today); date = date
+                .plusDays(1)) {
+            DayOfWeek dayOfWeek = date.getDayOfWeek();
+            if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY
+                    && (reportedDays & dayBit(date)) == 0) {
+                days.add(date.getDayOfMonth());
+            }
+        }
+        return days;
+    }
+
+    // 日付に対応するビット(1日をビット0とする)
+    private static int dayBit(LocalDate date) {
+        return 1 << (date.getDayOfMonth() - 1);
+    }
+
+    // 日報1件分の差分を従業員・月ごとに加算する(sign: 登録は1、削除は-1)
+    private static void accumulate(Map<ReportMonthlySummary.Key, Delta> deltas, String employeeCode,
+            LocalDate reportDate, String content, int sign) {
+        Delta delta = deltas.computeIfAbsent(
+                new ReportMonthlySummary.Key(employeeCode, toReportMonth(YearMonth.from(reportDate))),
+                key -> new Delta());
+        delta.reportCount += sign;
+        // 文字数はDB(文字単位)と合わせてコードポイント数で数える
+        delta.contentLength += sign * (long) content.codePointCount(0, content.length());
+        delta.reportedDays += sign * dayBit(reportDate);
+    }
+
+    // 差分を集計テーブルに加算する(変化のない行は更新しない)
+    private void apply(Map<ReportMonthlySummary.Key, Delta> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta.reportCount != 0 || delta.contentLength != 0 || delta.reportedDays != 0) {
+                summaryRepository.addDelta(key.getEmployeeCode(), key.getReportMonth(), delta.reportCount,
+                        delta.contentLength, delta.reportedDays);
+            }
+        });
+    }
+
+    // 従業員・月ごとの差分
+    private static class Delta {
+        private int reportCount;
+        private long contentLength;
+        private int reportedDays;
+    }
+}
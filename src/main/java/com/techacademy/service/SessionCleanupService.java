@@ -0,0 +1,49 @@
+package com.techacademy.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// 有効期限切れのセッション(Spring Session JDBC)の削除
+// 期限切れのセッションが大量にあっても1回のDELETEで長時間ロックしないよう、batchSize件ずつ別の文(自動コミット)で削除する
+// 属性(SPRING_SESSION_ATTRIBUTES)は外部キーのON DELETE CASCADEで合わせて削除される
+// 複数台で同時に実行されても、同じ行を削除し合うだけで結果は変わらない
+@Service
+public class SessionCleanupService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Counter deletedCounter;
+
+    @Autowired
+    public SessionCleanupService(JdbcTemplate jdbcTemplate,
+            @Value("${app.session.cleanup-batch-size:1000}") int batchSize, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.deletedCounter = Counter.builder("app.job.session-cleanup.deleted")
+                .description("削除した有効期限切れのセッション数").register(meterRegistry);
+    }
+
+    // 毎分実行する(app.session.cleanup-cronに"-"を指定すると実行しない)
+    @Scheduled(cron = "${app.session.cleanup-cron:0 * * * * *}")
+    public void cleanupExpiredSessions() {
+        deleteExpired(System.currentTimeMillis());
+    }
+
+    // 指定日時(エポックミリ秒)より前に期限切れとなったセッションを削除する 削除件数を返す
+    public int deleteExpired(long now) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM SPRING_SESSION WHERE EXPIRY_TIME < ? LIMIT ?", now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        deletedCounter.increment(total);
+        return total;
+    }
+}
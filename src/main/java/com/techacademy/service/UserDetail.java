@@ -1,6 +1,5 @@
 package com.techacademy.service;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -9,39 +8,58 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import com.techacademy.entity.Employee;
+import com.techacademy.entity.Employee.Role;
 
+// ログイン中の従業員(セッションに保持する認証情報)
+// セッションはDBに保存して複数台のサーバーで共有するため、従業員エンティティ(日報の関連等)は保持せず、
+// 社員番号・氏名・権限のみを保持する変更不可のオブジェクトとする
 public class UserDetail implements UserDetails {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
-    private final Employee employee;
+    // 社員番号
+    private final String code;
 
-    private final List<SimpleGrantedAuthority> authorities;
+    // 氏名
+    private final String name;
+
+    // 権限
+    private final Role role;
+
+    // パスワード(ハッシュ) ログイン時の照合にのみ使い、セッションには保存しない
+    private final transient String password;
 
     public UserDetail(Employee employee) {
-        this.employee = employee;
+        this.code = employee.getCode();
+        this.name = employee.getName();
+        this.role = employee.getRole();
+        this.password = employee.getPassword();
+    }
+
+    public String getCode() {
+        return code;
+    }
 
-        List<SimpleGrantedAuthority> authorities = new ArrayList<SimpleGrantedAuthority>();
-        authorities.add(new SimpleGrantedAuthority(employee.getRole().toString()));
-        this.authorities = authorities;
+    public String getName() {
+        return name;
     }
 
-    public Employee getEmployee() {
-        return employee;
+    public Role getRole() {
+        return role;
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return authorities;
+        return List.of(new SimpleGrantedAuthority(role.toString()));
     }
 
     @Override
     public String getPassword() {
-        return employee.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return employee.getCode();
+        return code;
     }
 
     @Override
@@ -67,4 +85,4 @@ public class UserDetail implements UserDetails {
         // 従業員が有効であればtrueを返す
         return true;
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package com.techacademy.service;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,6 +14,10 @@ import com.techacademy.repository.EmployeeRepository;
 
 @Service
 public class UserDetailService implements UserDetailsService {
+    // 認証情報のキャッシュ名(従業員の更新・削除時に破棄する)
+    // キャッシュはサーバーごとにあり、他のサーバーでの更新・削除は有効期限(spring.cache.caffeine.spec)の経過後に反映される
+    public static final String CACHE_NAME = "userDetails";
+
     private final EmployeeRepository employeeRepository;
 
     @Autowired
@@ -21,12 +26,14 @@ public class UserDetailService implements UserDetailsService {
     }
 
     @Override
+    @Cacheable(cacheNames = CACHE_NAME, key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<Employee> employee = employeeRepository.findById(username);
+        // キャッシュにない場合は、同じくサーバーごとの2次キャッシュを使わずDBから有効な従業員を取得する
+        Optional<Employee> employee = employeeRepository.findByCodeFromDatabase(username);
 
         if (employee.isEmpty()) {
             throw new UsernameNotFoundException("Exception:Username Not Found");
         }
         return new UserDetail(employee.get());
     }
-}
\ No newline at end of file
+}
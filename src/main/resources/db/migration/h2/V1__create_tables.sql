@@ -0,0 +1,65 @@
+-- 初期スキーマ(テスト・ベンチマーク用のH2 MySQL互換モード 内容はmysql/V1__create_tables.sqlと揃える)
+-- H2にはFULLTEXTインデックスがないため全文検索はLuceneで行う
+
+CREATE TABLE employees (
+    code VARCHAR(10) NOT NULL,
+    name VARCHAR(20) NOT NULL,
+    role VARCHAR(10) NOT NULL CHECK (role IN ('GENERAL', 'ADMIN')),
+    password VARCHAR(255) NOT NULL,
+    delete_flg TINYINT NOT NULL,
+    version INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (code)
+);
+
+CREATE TABLE reports (
+    id INTEGER NOT NULL,
+    report_date DATE NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    content LONGTEXT NOT NULL,
+    employee_code VARCHAR(10) NOT NULL,
+    delete_flg TINYINT NOT NULL,
+    -- 有効フラグ(削除済みはNULLとなり一意制約の対象外になる)
+    active_flg TINYINT GENERATED ALWAYS AS (CASE WHEN delete_flg = 0 THEN 1 END),
+    version INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    -- 同一従業員・同一日付の有効な日報は1件のみ
+    CONSTRAINT uk_reports_employee_date_active UNIQUE (employee_code, report_date, active_flg),
+    CONSTRAINT fk_reports_employee_code FOREIGN KEY (employee_code) REFERENCES employees (code)
+);
+
+CREATE INDEX idx_reports_report_date_id ON reports (report_date, id);
+CREATE INDEX idx_reports_delete_flg_updated_at ON reports (delete_flg, updated_at);
+
+CREATE SEQUENCE reports_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE report_monthly_summaries (
+    employee_code VARCHAR(10) NOT NULL,
+    report_month INTEGER NOT NULL,
+    report_count INTEGER NOT NULL,
+    content_length BIGINT NOT NULL,
+    reported_days INTEGER NOT NULL,
+    PRIMARY KEY (report_month, employee_code)
+);
+
+CREATE TABLE missing_reports (
+    id INTEGER NOT NULL,
+    report_date DATE NOT NULL,
+    employee_code VARCHAR(10) NOT NULL,
+    employee_name VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_missing_reports_date_employee UNIQUE (report_date, employee_code)
+);
+
+CREATE SEQUENCE missing_reports_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE missing_report_runs (
+    report_date DATE NOT NULL,
+    executed_at TIMESTAMP(6) NOT NULL,
+    duration_millis BIGINT NOT NULL,
+    missing_count INTEGER NOT NULL,
+    PRIMARY KEY (report_date)
+);
@@ -0,0 +1,74 @@
+-- 初期スキーマ(従来ddl-auto=createで生成していたテーブルと、data.sqlで作成していた全文検索用インデックス)
+
+CREATE TABLE employees (
+    code VARCHAR(10) NOT NULL,
+    name VARCHAR(20) NOT NULL,
+    role VARCHAR(10) NOT NULL CHECK (role IN ('GENERAL', 'ADMIN')),
+    password VARCHAR(255) NOT NULL,
+    delete_flg TINYINT NOT NULL,
+    version INTEGER NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (code)
+) ENGINE=InnoDB;
+
+CREATE TABLE reports (
+    id INTEGER NOT NULL,
+    report_date DATE NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    content LONGTEXT NOT NULL,
+    employee_code VARCHAR(10) NOT NULL,
+    delete_flg TINYINT NOT NULL,
+    -- 有効フラグ(削除済みはNULLとなり一意制約の対象外になる)
+    active_flg TINYINT GENERATED ALWAYS AS (CASE WHEN delete_flg = 0 THEN 1 END),
+    version INTEGER NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    -- 同一従業員・同一日付の有効な日報は1件のみ
+    CONSTRAINT uk_reports_employee_date_active UNIQUE (employee_code, report_date, active_flg),
+    CONSTRAINT fk_reports_employee_code FOREIGN KEY (employee_code) REFERENCES employees (code)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_reports_report_date_id ON reports (report_date, id);
+CREATE INDEX idx_reports_delete_flg_updated_at ON reports (delete_flg, updated_at);
+
+-- 日報の全文検索用インデックス(日本語は2文字ずつ索引するngramパーサ)
+ALTER TABLE reports ADD FULLTEXT INDEX ft_reports_title_content (title, content) WITH PARSER ngram;
+
+-- 日報IDの採番(MySQLにはシーケンスがないためテーブルで代替する)
+CREATE TABLE reports_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO reports_seq VALUES (1);
+
+CREATE TABLE report_monthly_summaries (
+    employee_code VARCHAR(10) NOT NULL,
+    report_month INTEGER NOT NULL,
+    report_count INTEGER NOT NULL,
+    content_length BIGINT NOT NULL,
+    reported_days INTEGER NOT NULL,
+    PRIMARY KEY (report_month, employee_code)
+) ENGINE=InnoDB;
+
+CREATE TABLE missing_reports (
+    id INTEGER NOT NULL,
+    report_date DATE NOT NULL,
+    employee_code VARCHAR(10) NOT NULL,
+    employee_name VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_missing_reports_date_employee UNIQUE (report_date, employee_code)
+) ENGINE=InnoDB;
+
+CREATE TABLE missing_reports_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO missing_reports_seq VALUES (1);
+
+CREATE TABLE missing_report_runs (
+    report_date DATE NOT NULL,
+    executed_at DATETIME(6) NOT NULL,
+    duration_millis BIGINT NOT NULL,
+    missing_count INTEGER NOT NULL,
+    PRIMARY KEY (report_date)
+) ENGINE=InnoDB;
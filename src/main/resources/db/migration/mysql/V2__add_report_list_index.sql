@@ -0,0 +1,4 @@
+-- 一覧・CSV出力は有効な日報(delete_flg = 0)のみを日付・ID順に読むため、削除フラグを先頭に含むインデックスに置き換える
+-- 従業員・日付での検索(findByEmployee / findByReportDateAndEmployee)は一意制約(employee_code, report_date, active_flg)のインデックスを使う
+CREATE INDEX idx_reports_delete_flg_report_date_id ON reports (delete_flg, report_date, id);
+DROP INDEX idx_reports_report_date_id ON reports;
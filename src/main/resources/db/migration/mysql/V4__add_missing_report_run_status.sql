@@ -0,0 +1,3 @@
+-- 未提出検出ジョブの実行中の状態 同じ日の検出を複数台のサーバーで同時に実行しないよう、実行結果の行をロックして実行中に更新する
+-- 実行中の場合、実行日時は開始日時となる
+ALTER TABLE missing_report_runs ADD COLUMN running BOOLEAN NOT NULL DEFAULT FALSE;
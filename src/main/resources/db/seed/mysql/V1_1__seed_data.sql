@@ -0,0 +1,12 @@
+-- 開発用の初期データ(prodプロファイルでは投入しない)
+-- 従来data.sqlで投入していたデータのため、投入済みのデータベースに適用しても重複しないようにする
+INSERT IGNORE INTO employees(code,name,role,password,delete_flg,version,created_at,updated_at)
+     VALUES ('1','煌木　太郎','ADMIN','$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+INSERT IGNORE INTO employees(code,name,role,password,delete_flg,version,created_at,updated_at)
+     VALUES ('2','田中　太郎','GENERAL','$2a$10$HPIjRCymeRZKEIq.71TDduiEotOlb8Ai6KQUHCs4lGNYlLhcKv4Wi',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+INSERT IGNORE INTO reports(id,report_date,title,content,employee_code,delete_flg,version,created_at,updated_at)
+     VALUES (1,CURRENT_DATE,'煌木　太郎の記載、タイトル','煌木　太郎の記載、内容','1',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+INSERT IGNORE INTO reports(id,report_date,title,content,employee_code,delete_flg,version,created_at,updated_at)
+     VALUES (2,CURRENT_DATE,'田中　太郎の記載、タイトル','田中　太郎の記載、内容','2',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+-- 日報IDの採番(reports_seq)は初期データのIDより後ろから始める
+UPDATE reports_seq SET next_val = GREATEST(next_val, 101);
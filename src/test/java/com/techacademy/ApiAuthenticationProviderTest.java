@@ -0,0 +1,92 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.service.UserDetail;
+
+// REST APIの認証 照合済みのパスワードはハッシュ計算をせずに認証し、従業員の変更は直ちに反映されること
+class ApiAuthenticationProviderTest {
+
+    // 従業員番号 → 従業員
+    private final Map<String, Employee> employees = new HashMap<>();
+
+    // ハッシュ計算による照合の回数
+    private final AtomicInteger matchesCount = new AtomicInteger();
+
+    private final ApiAuthenticationProvider provider;
+
+    ApiAuthenticationProviderTest() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        PasswordEncoder countingEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return bcrypt.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                matchesCount.incrementAndGet();
+                return bcrypt.matches(rawPassword, encodedPassword);
+            }
+        };
+        employees.put("1", employee("1", countingEncoder.encode("password")));
+        provider = new ApiAuthenticationProvider(username -> {
+            Employee employee = employees.get(username);
+            if (employee == null) {
+                throw new UsernameNotFoundException(username);
+            }
+            return new UserDetail(employee);
+        }, countingEncoder, Duration.ofMinutes(1), 100);
+    }
+
+    // 2回目以降はハッシュ計算をしない 誤ったパスワードは保持しない
+    @Test
+    void testCachedCredentials() {
+        assertNotNull(provider.authenticate(token("1", "password")));
+        assertNotNull(provider.authenticate(token("1", "password")));
+        assertEquals(1, matchesCount.get());
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("1", "wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("1", "wrong")));
+        assertEquals(3, matchesCount.get());
+    }
+
+    // パスワードの変更・従業員の削除後は保持していたパスワードで認証できないこと
+    @Test
+    void testChangedCredentials() {
+        provider.authenticate(token("1", "password"));
+
+        employees.put("1", employee("1", new BCryptPasswordEncoder(4).encode("changed")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("1", "password")));
+        assertNotNull(provider.authenticate(token("1", "changed")));
+
+        employees.remove("1");
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("1", "changed")));
+    }
+
+    private static Employee employee(String code, String password) {
+        Employee employee = new Employee();
+        employee.setCode(code);
+        employee.setName("煌木　太郎");
+        employee.setRole(Employee.Role.ADMIN);
+        employee.setPassword(password);
+        return employee;
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
@@ -0,0 +1,52 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.coyote.ajp.AjpNio2Protocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.service.UserDetail;
+
+// ネイティブイメージ用の実行時情報が登録されること
+class ApplicationRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    ApplicationRuntimeHintsTest() {
+        new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    // テンプレートから参照するgetter・メソッド
+    @Test
+    void testTemplateReflection() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Employee.class.getMethod("getName")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(UserDetail.class.getMethod("getName")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TemplateFragmentCache.class).test(hints));
+    }
+
+    // AJPコネクタのプロトコルをクラス名から生成できること
+    @Test
+    void testAjpProtocol() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(AjpNio2Protocol.class.getConstructor())
+                .test(hints));
+    }
+
+    // テンプレート・マイグレーション・2次キャッシュの設定ファイル
+    @Test
+    void testResources() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("templates/reports/list.html").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/mysql/V1__create_tables.sql")
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("hibernate-jcache.conf").test(hints));
+    }
+
+    // セッションに保存する認証情報
+    @Test
+    void testSessionSerialization() {
+        assertTrue(RuntimeHintsPredicates.serialization().onType(UserDetail.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.serialization().onType(Employee.Role.class).test(hints));
+    }
+}
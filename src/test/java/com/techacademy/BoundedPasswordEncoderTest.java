@@ -0,0 +1,66 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// パスワードのハッシュ計算を専用スレッドプールで実行するPasswordEncoder
+class BoundedPasswordEncoderTest {
+
+    // 解放されるまで計算を終わらせないPasswordEncoder
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{noop}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    };
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+    }
+
+    // 結果を待つ時間の上限を超えた場合は失敗すること
+    @Test
+    void testResultTimeout() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, Duration.ofSeconds(1),
+                Duration.ofMillis(100));
+
+        AuthenticationServiceException e = assertThrows(AuthenticationServiceException.class,
+                () -> encoder.encode("password"));
+        assertEquals("Password hashing timed out", e.getMessage());
+        encoder.destroy();
+    }
+
+    // 停止後は待ち行列があふれていても待たずに失敗すること
+    @Test
+    void testRejectAfterDestroy() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+        encoder.destroy();
+
+        long start = System.nanoTime();
+        AuthenticationServiceException e = assertThrows(AuthenticationServiceException.class,
+                () -> encoder.encode("password"));
+        assertEquals("Password hashing is overloaded", e.getMessage());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+}
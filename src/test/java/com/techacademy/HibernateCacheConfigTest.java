@@ -0,0 +1,35 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+
+// Hibernate 2次キャッシュのCacheManager
+class HibernateCacheConfigTest {
+
+    // 設定ファイルのリージョン(従業員・日報)が件数上限・有効期限付きで作成されること
+    // (設定ファイルを読み込めない場合はリージョンがなく、起動時に失敗する)
+    @Test
+    void testRegions() {
+        // 同じURIのCacheManagerはJVMで共有され、テスト中のアプリケーションも使うため閉じない
+        CacheManager cacheManager = new HibernateCacheConfig().hibernateCacheManager();
+        assertRegion(cacheManager.getCache("employee"), 1000, Duration.ofMinutes(30));
+        assertRegion(cacheManager.getCache("report"), 10000, Duration.ofMinutes(10));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertRegion(Cache<?, ?> cache, long maximumSize, Duration expireAfterWrite) {
+        assertNotNull(cache);
+        CaffeineConfiguration<?, ?> configuration = cache.getConfiguration(CaffeineConfiguration.class);
+        assertEquals(OptionalLong.of(maximumSize), configuration.getMaximumSize());
+        assertEquals(OptionalLong.of(expireAfterWrite.toNanos()), configuration.getExpireAfterWrite());
+    }
+}
@@ -0,0 +1,136 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportRepository;
+import com.techacademy.service.EmployeeService;
+import com.techacademy.service.ReportService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// 読み取り専用トランザクションはレプリカ、更新はプライマリに振り分けられること
+// プライマリ・レプリカとも別々のインメモリH2とし、レプリカにもマイグレーションとテスト用データを適用する
+@SpringBootTest(properties = {
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa", "app.datasource.replica.migrate=true" })
+@ExtendWith(SpringExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @BeforeEach
+    void beforeEach() {
+        // プライマリのみに日報を1件追加する(レプリカには反映されない)
+        new JdbcTemplate(primaryDataSource).update("INSERT INTO reports(id,report_date,title,content,employee_code,"
+                + "delete_flg,version,created_at,updated_at) VALUES (90,CURRENT_DATE - 1,'タイトル','内容','1',0,0,"
+                + "CURRENT_TIMESTAMP,CURRENT_TIMESTAMP)");
+    }
+
+    @AfterEach
+    void afterEach() {
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM reports WHERE id = 90");
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // 読み取り専用のメソッドはレプリカ、更新用のトランザクションはプライマリから読み込むこと
+    @Test
+    void testRouting() {
+        assertEquals(2L, reportService.count());
+        assertEquals(2L, employeeService.count());
+        assertEquals(3L, (long) transactionTemplate.execute(status -> reportRepository.count()));
+    }
+
+    // 更新したセッションでは一定時間プライマリから読み込み、他のセッションはレプリカから読み込むこと
+    @Test
+    void testReadYourWrites() {
+        MockHttpSession session = new MockHttpSession();
+        bindRequest(session);
+        assertEquals(2L, reportService.count());
+
+        // 更新用のトランザクション(コミット後にセッションに最終更新日時を記録する)
+        transactionTemplate.executeWithoutResult(status -> reportRepository.count());
+        assertEquals(3L, reportService.count());
+
+        // 他のセッション
+        bindRequest(new MockHttpSession());
+        assertEquals(2L, reportService.count());
+
+        // 更新から一定時間(app.datasource.read-your-writes-window)が経過した場合
+        session.setAttribute(ReadWriteRoutingDataSource.LAST_WRITE_ATTRIBUTE, System.currentTimeMillis() - 60_000);
+        bindRequest(session);
+        assertEquals(2L, reportService.count());
+    }
+
+    // セッションのないリクエスト(REST API)でも、レプリカに未反映の日報を更新でき、更新結果をプライマリから読み込むこと
+    @Test
+    void testUpdateBeforeReplication() {
+        bindRequest(null);
+        assertNull(reportService.findById(90));
+
+        Report report = new Report();
+        report.setReportDate(LocalDate.now().minusDays(1));
+        report.setTitle("更新");
+        report.setContent("内容");
+        report.setVersion(0);
+        assertEquals(ErrorKinds.SUCCESS, reportService.update(report, 90, null));
+
+        Report updated = reportService.findWithEmployeeByIdFromPrimary(90);
+        assertEquals("更新", updated.getTitle());
+        assertEquals("煌木　太郎", updated.getEmployee().getName());
+    }
+
+    // 接続プールごとのメトリクスと振り分け回数が記録されること
+    @Test
+    void testMetrics() {
+        reportService.count();
+
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge());
+        assertTrue(meterRegistry.get("app.datasource.routing").tag("target", "replica").counter().count() > 0);
+    }
+
+    // 指定したセッションのリクエストを処理中とする
+    private static void bindRequest(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,34 @@
+package com.techacademy;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+// パスワードのハッシュ方式の選択
+class SecurityConfigTest {
+
+    // 指定した方式でハッシュ化し、接頭辞のない既存のハッシュもBCryptとして照合できること
+    @Test
+    void testCreatePasswordEncoder() {
+        PasswordEncoder encoder = SecurityConfig.createPasswordEncoder("pbkdf2", 4);
+        String encoded = encoder.encode("password");
+        assertTrue(encoded.startsWith("{pbkdf2}"));
+        assertTrue(encoder.matches("password", encoded));
+        assertTrue(encoder.matches("password", new BCryptPasswordEncoder(4).encode("password")));
+    }
+
+    // Bouncy Castleがない場合(-Pargon2でビルドしていない場合)、argon2・不明な方式の指定は起動時に失敗すること
+    @Test
+    void testUnavailableEncoder() {
+        assumeFalse(ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> SecurityConfig.createPasswordEncoder("argon2", 10));
+        assertTrue(e.getMessage().contains("-Pargon2"));
+        assertThrows(IllegalStateException.class, () -> SecurityConfig.createPasswordEncoder("md5", 10));
+    }
+}
@@ -0,0 +1,48 @@
+package com.techacademy.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+// 管理用エンドポイントのアクセス制御
+// 管理用ポートのサーバを空きポートで起動し、未ログインのリクエスト(リダイレクトは追わない)で確認する
+// (テストでは無効となるメトリクスの出力を有効にし、prometheusエンドポイントを作成する)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureObservability
+@ExtendWith(SpringExtension.class)
+class ActuatorSecurityTest {
+
+    private final HttpClient client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+
+    @LocalManagementPort
+    private int managementPort;
+
+    // 死活監視・メトリクス収集は未ログインでアクセスでき、その他(キャッシュの参照・破棄等)はログインが必要なこと
+    @Test
+    void testEndpoints() throws Exception {
+        assertEquals(200, get("/actuator/health").statusCode());
+        assertEquals(200, get("/actuator/prometheus").statusCode());
+
+        for (String path : new String[] { "/actuator/caches", "/actuator/metrics" }) {
+            HttpResponse<String> response = get(path);
+            assertEquals(302, response.statusCode(), path);
+            assertTrue(response.headers().firstValue("Location").orElse("").endsWith("/login"), path);
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + managementPort + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
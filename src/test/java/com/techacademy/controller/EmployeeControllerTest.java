@@ -3,6 +3,7 @@ package com.techacademy.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
@@ -11,6 +12,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,8 +31,11 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.techacademy.constants.ErrorKinds;
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Employee.Role;
+import com.techacademy.repository.EmployeeListView;
+import com.techacademy.service.ImportResult;
 import com.techacademy.service.UserDetail;
 
 @SpringBootTest
@@ -65,21 +71,19 @@ class EmployeeControllerTest {
                 .andReturn(); // 内容の取得
 
         @SuppressWarnings("unchecked")
-        List<Employee> employeeList = (List<Employee>) result.getModelAndView().getModel().get("employeeList");
+        List<EmployeeListView> employeeList = (List<EmployeeListView>) result.getModelAndView().getModel()
+                .get("employeeList");
 
-        // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが2の受講生のオブジェクトのみ取得する
-        Employee employeeCode1 = employeeList.stream().filter(e -> "1".equals(e.getCode())).findFirst().get();
+        // 一覧は表示列(社員番号・氏名)のみを取得するため、パスワード等は含まれない
+        // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが1の受講生のオブジェクトのみ取得する
+        EmployeeListView employeeCode1 = employeeList.stream().filter(e -> "1".equals(e.getCode())).findFirst().get();
         assertEquals(employeeCode1.getCode(), "1");
         assertEquals(employeeCode1.getName(), "煌木　太郎");
-        assertEquals(employeeCode1.getRole(), Role.ADMIN);
-        assertEquals(employeeCode1.getPassword(), "$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO");
 
         // employeeListをstreamへ変換した上で、streamのfilterメソッドでCodeが2の受講生のオブジェクトのみ取得する
-        Employee employeeCode2 = employeeList.stream().filter(e -> "2".equals(e.getCode())).findFirst().get();
+        EmployeeListView employeeCode2 = employeeList.stream().filter(e -> "2".equals(e.getCode())).findFirst().get();
         assertEquals(employeeCode2.getCode(), "2");
         assertEquals(employeeCode2.getName(), "田中　太郎");
-        assertEquals(employeeCode2.getRole(), Role.GENERAL);
-        assertEquals(employeeCode2.getPassword(), "$2a$10$HPIjRCymeRZKEIq.71TDduiEotOlb8Ai6KQUHCs4lGNYlLhcKv4Wi");
 
     }
 
@@ -270,6 +274,57 @@ class EmployeeControllerTest {
 
     }
 
+    // 従業員更新処理
+    // 表示後に他の利用者が更新していた場合は上書きせず、更新画面に戻ること
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @Transactional
+    void testUpdateConflict() throws Exception {
+        Employee employee = new Employee();
+        employee.setCode("2");
+        employee.setName("田中　次郎");
+        employee.setPassword("");
+        employee.setRole(Role.GENERAL);
+        // 表示後に他の利用者が更新したバージョン
+        employee.setVersion(-1);
+
+        // HTTPリクエストに対するレスポンスの検証
+        mockMvc.perform((post("/employees/2/update/")).flashAttr("employee", employee).with(csrf()))
+                .andExpect(model().attribute("versionError", "他のユーザーが先に更新しました。最新の内容を確認して再度更新してください"))
+                .andExpect(view().name("employees/update"));
+    }
+
+    // 従業員一括登録処理
+    // 正しい行のみ登録され、誤りのある行は行番号とエラー種別が返ること
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @Transactional
+    void testImport() throws Exception {
+        String csv = "社員番号,氏名,権限,パスワード\r\n"
+                + "101,一括　一郎,一般,password1\r\n"
+                + "1,重複　太郎,管理者,password1\r\n"
+                + "102,一括　二郎,ADMIN,pass\r\n"
+                + "103,,一般,password1\r\n";
+        MockMultipartFile file = new MockMultipartFile("file", "employees.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(multipart("/employees/import").file(file).with(csrf()))
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("result")) // Modelの内容を確認
+                .andExpect(view().name("employees/import")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        ImportResult importResult = (ImportResult) result.getModelAndView().getModel().get("result");
+        assertEquals(1, importResult.getImported());
+        assertEquals(3, importResult.getErrorCount());
+        assertEquals(3, importResult.getErrors().get(0).getRow());
+        assertEquals(ErrorKinds.DUPLICATE_ERROR, importResult.getErrors().get(0).getKind());
+        assertEquals(ErrorKinds.RANGECHECK_ERROR, importResult.getErrors().get(1).getKind());
+        assertEquals(ErrorKinds.BLANK_ERROR, importResult.getErrors().get(2).getKind());
+        assertEquals("氏名: 値を入力してください", importResult.getErrors().get(2).getMessage());
+    }
+
     // 従業員削除処理
     // テストケース1 正常終了
     @Test
@@ -0,0 +1,243 @@
+package com.techacademy.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techacademy.entity.Employee;
+import com.techacademy.service.UserDetail;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class ReportApiControllerTest {
+
+    private MockMvc mockMvc;
+
+    private final WebApplicationContext webApplicationContext;
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    ReportApiControllerTest(WebApplicationContext context, ObjectMapper objectMapper) {
+        this.webApplicationContext = context;
+        this.objectMapper = objectMapper;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        // Spring Securityを有効にする
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    // 日報一覧
+    // カーソルで次のページを取得し、最後のページではnextCursorがnullとなること
+    @Test
+    void testList() throws Exception {
+        UserDetail userDetail = loginUser();
+
+        // HTTPリクエストに対するレスポンスの検証(非同期で書き出されるため、完了後の内容を確認する)
+        String cursor = performList(get("/api/reports").param("limit", "1").with(user(userDetail)))
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(jsonPath("$.items.length()").value(1)) // 件数の確認
+                .andExpect(jsonPath("$.items[0].id").value(2)) // 日付・IDの降順
+                .andExpect(jsonPath("$.items[0].employeeCode").value("2"))
+                .andExpect(jsonPath("$.items[0].employeeName").value("田中　太郎"))
+                .andExpect(jsonPath("$.items[0].reportDate").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String nextCursor = objectMapper.readTree(cursor).get("nextCursor").asText();
+        performList(get("/api/reports").param("limit", "1").param("cursor", nextCursor).with(user(userDetail)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    // 日報一覧
+    // 指定した項目のみ出力されること
+    @Test
+    void testListFields() throws Exception {
+        String json = performList(get("/api/reports").param("fields", "id,title").with(user(loginUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode item = objectMapper.readTree(json).get("items").get(0);
+        assertNull(item.get("employeeName"));
+        assertNull(item.get("contentPreview"));
+        assertEquals("田中　太郎の記載、タイトル", item.get("title").asText());
+    }
+
+    // 日報一覧
+    // 項目・カーソル・件数が不正な場合は入力チェックエラーとなること
+    @Test
+    void testListInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/reports").param("fields", "id,password").param("cursor", "invalid")
+                .param("limit", "0").with(user(loginUser())))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.fields.fields").value("指定できない項目です: password"))
+                .andExpect(jsonPath("$.fields.cursor").exists())
+                .andExpect(jsonPath("$.fields.limit").exists());
+    }
+
+    // 日報詳細
+    @Test
+    void testDetail() throws Exception {
+        mockMvc.perform(get("/api/reports/1").with(user(loginUser())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.employeeName").value("煌木　太郎"))
+                .andExpect(jsonPath("$.content").value("煌木　太郎の記載、内容"))
+                .andExpect(jsonPath("$.version").value(0));
+
+        // 存在しない日報
+        mockMvc.perform(get("/api/reports/999").with(user(loginUser())))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("NOT_FOUND_ERROR"))
+                .andExpect(jsonPath("$.message").value("対象のデータが見つかりません"));
+    }
+
+    // 日報の登録・更新・削除
+    // ErrorKindsのエラーがステータスとエラーの種類で返されること
+    @Test
+    @Transactional
+    void testCreateUpdateDelete() throws Exception {
+        UserDetail userDetail = loginUser();
+        String yesterday = LocalDate.now().minusDays(1).toString();
+
+        // 同一日付の日報が既に存在する場合
+        mockMvc.perform(post("/api/reports").with(user(userDetail)).contentType(MediaType.APPLICATION_JSON)
+                .content(body(LocalDate.now().toString(), "タイトル", null)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("DATECHECK_ERROR"))
+                .andExpect(jsonPath("$.field").value("reportDateError"));
+
+        // 登録(CSRFトークンは不要)
+        String created = mockMvc.perform(post("/api/reports").with(user(userDetail))
+                .contentType(MediaType.APPLICATION_JSON).content(body(yesterday, "タイトル", null)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.employeeCode").value("1"))
+                .andExpect(jsonPath("$.reportDate").value(yesterday))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        int id = objectMapper.readTree(created).get("id").asInt();
+        entityManager.flush();
+
+        // 更新 バージョンの指定がない場合・取得時のバージョンと異なる場合
+        mockMvc.perform(put("/api/reports/" + id).with(user(userDetail)).contentType(MediaType.APPLICATION_JSON)
+                .content(body(yesterday, "更新", null)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fields.version").exists());
+        mockMvc.perform(put("/api/reports/" + id).with(user(userDetail)).contentType(MediaType.APPLICATION_JSON)
+                .content(body(yesterday, "更新", 5)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("OPTIMISTIC_LOCK_ERROR"));
+
+        mockMvc.perform(put("/api/reports/" + id).with(user(userDetail)).contentType(MediaType.APPLICATION_JSON)
+                .content(body(yesterday, "更新", 0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("更新"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // 削除
+        mockMvc.perform(delete("/api/reports/" + id).with(user(userDetail)))
+                .andExpect(status().isNoContent());
+        entityManager.flush();
+        mockMvc.perform(get("/api/reports/" + id).with(user(userDetail)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/reports/" + id).with(user(userDetail)))
+                .andExpect(status().isNotFound());
+    }
+
+    // 日報登録
+    // 入力チェックエラーが項目ごとに返されること
+    @Test
+    void testCreateValidation() throws Exception {
+        mockMvc.perform(post("/api/reports").with(user(loginUser())).contentType(MediaType.APPLICATION_JSON)
+                .content(body(LocalDate.now().toString(), "", null)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"))
+                .andExpect(jsonPath("$.fields.title").exists())
+                .andExpect(jsonPath("$.fields.content").doesNotExist());
+
+        // JSONの形式の誤り
+        mockMvc.perform(post("/api/reports").with(user(loginUser())).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reportDate\":\"yesterday\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"));
+    }
+
+    // 未認証の場合はログイン画面へのリダイレクトではなく401となり、セッションを作らないこと
+    @Test
+    void testUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/reports"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists("WWW-Authenticate"))
+                .andExpect(request().sessionAttributeDoesNotExist("SPRING_SECURITY_SAVED_REQUEST"));
+        mockMvc.perform(get("/api/reports").with(httpBasic("1", "wrong-password")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // ログイン中の従業員(社員番号1)
+    private UserDetail loginUser() {
+        return new UserDetail(entityManager.find(Employee.class, "1"));
+    }
+
+    // 一覧の取得(非同期で書き出される応答の完了を待つ)
+    private ResultActions performList(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    // 登録・更新のリクエスト
+    private String body(String reportDate, String title, Integer version) throws Exception {
+        Map<String, Object> body = new HashMap<>();
+        body.put("reportDate", reportDate);
+        body.put("title", title);
+        body.put("content", "内容");
+        body.put("version", version);
+        return objectMapper.writeValueAsString(body);
+    }
+}
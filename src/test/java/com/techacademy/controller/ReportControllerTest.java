@@ -0,0 +1,605 @@
+package com.techacademy.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.MissingReport;
+import com.techacademy.entity.MissingReportRun;
+import com.techacademy.entity.Employee.Role;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.ReportListView;
+import com.techacademy.service.ImportResult;
+import com.techacademy.service.MonthlySummary;
+import com.techacademy.service.ReportSummaryService;
+import com.techacademy.service.UserDetail;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+class ReportControllerTest {
+
+    private MockMvc mockMvc;
+
+    private final WebApplicationContext webApplicationContext;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ReportSummaryService reportSummaryService;
+
+    @Autowired
+    ReportControllerTest(WebApplicationContext context, ReportSummaryService reportSummaryService) {
+        this.webApplicationContext = context;
+        this.reportSummaryService = reportSummaryService;
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        // Spring Securityを有効にする
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
+    }
+
+    // 日報一覧画面
+    @Test
+    @WithMockUser
+    void testList() throws Exception {
+        // HTTPリクエストに対するレスポンスの検証
+        mockMvc.perform(get("/reports")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("reportsList")) // Modelの内容を確認
+                .andExpect(model().attribute("listSize", 2L)) // 件数の確認
+                .andExpect(model().hasNoErrors()) // Modelのエラー有無の確認
+                .andExpect(view().name("reports/list")); // viewの確認
+    }
+
+    // 日報一覧画面のページ移動
+    // 前後のページの有無は1件多く取得して判定し、リクエストのページ番号は表示にのみ使うこと
+    @Test
+    @WithMockUser
+    @Transactional
+    void testListPaging() throws Exception {
+        // テスト用データの2件と合わせて26件(2ページ目は6件)
+        insertReports(12, 2);
+        entityManager.flush();
+
+        List<ReportListView> first = listPage(get("/reports"), 1, false, true);
+        assertEquals(20, first.size());
+        ReportListView last = first.get(19);
+
+        // ページ番号を書き換えても、起点の後ろの日報と1件多く取得した結果で判定される
+        List<ReportListView> second = listPage(get("/reports").param("date", last.getReportDate().toString())
+                .param("id", last.getId().toString()).param("dir", "next").param("page", "1"), 2, true, false);
+        assertEquals(6, second.size());
+        listPage(get("/reports").param("date", last.getReportDate().toString()).param("id", last.getId().toString())
+                .param("dir", "next").param("page", "999"), 2, true, false);
+
+        // 前へ戻って先頭に達した場合は先頭ページとなる
+        ReportListView top = second.get(0);
+        List<ReportListView> back = listPage(get("/reports").param("date", top.getReportDate().toString())
+                .param("id", top.getId().toString()).param("dir", "prev").param("page", "5"), 1, false, true);
+        assertEquals(first.stream().map(ReportListView::getId).toList(),
+                back.stream().map(ReportListView::getId).toList());
+    }
+
+    // 日報一覧を表示し、ページ番号・前後のページの有無を確認して一覧を返す
+    @SuppressWarnings("unchecked")
+    private List<ReportListView> listPage(MockHttpServletRequestBuilder request, int page, boolean hasPrev,
+            boolean hasNext) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("page", page))
+                .andExpect(model().attribute("hasPrev", hasPrev))
+                .andExpect(model().attribute("hasNext", hasNext))
+                .andReturn();
+        return (List<ReportListView>) result.getModelAndView().getModel().get("reportsList");
+    }
+
+    // 共通ヘッダ・サイドメニュー
+    // ロールごとに保持した描画結果が他のロールの画面に表示されず、ログアウトのフォームは毎回CSRFトークンを含むこと
+    @Test
+    void testCommonFragments() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            // HTTPリクエストに対するレスポンスの検証
+            String admin = mockMvc.perform(get("/reports").with(user("admin").authorities(new SimpleGrantedAuthority("ADMIN")))) // URLにアクセス
+                    .andExpect(status().isOk()) // ステータスを確認
+                    .andReturn().getResponse().getContentAsString(); // 内容の取得
+            String general = mockMvc.perform(get("/reports").with(user("general").authorities(new SimpleGrantedAuthority("GENERAL"))))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            assertTrue(admin.contains("href=\"/employees\""));
+            assertFalse(general.contains("href=\"/employees\""));
+            assertTrue(general.contains("href=\"/reports\""));
+            for (String html : List.of(admin, general)) {
+                assertTrue(html.contains("name=\"_csrf\""));
+                assertTrue(html.contains("/css/bootstrap.min"));
+            }
+        }
+    }
+
+    // 日報検索画面
+    // タイトル・内容にキーワードを含む日報のみ表示されること
+    @Test
+    @WithMockUser
+    void testSearch() throws Exception {
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(get("/reports/search").param("q", "田中 内容")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attribute("hasNext", false)) // Modelの内容を確認
+                .andExpect(view().name("reports/search")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        @SuppressWarnings("unchecked")
+        List<ReportListView> reportsList = (List<ReportListView>) result.getModelAndView().getModel().get("reportsList");
+        assertEquals(1, reportsList.size());
+        assertEquals("田中　太郎", reportsList.get(0).getEmployeeName());
+
+        // 一致する日報がない場合
+        mockMvc.perform(get("/reports/search").param("q", "該当なし"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("reportsList", List.of()));
+    }
+
+    // 日報CSV出力
+    // 指定期間の日報がヘッダ行に続いて出力されること
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void testExport() throws Exception {
+        String today = LocalDate.now().toString();
+
+        // HTTPリクエストに対するレスポンスの検証(非同期で書き出されるため、完了後の内容を確認する)
+        MvcResult result = mockMvc.perform(get("/reports/export").param("from", today).param("to", today))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"reports_" + today + "_" + today + ".csv\""))
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = csv.split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("\uFEFF日付,社員番号,氏名,タイトル,内容,登録日時,更新日時", lines[0]);
+        // 登録日時、更新日時は秒単位での結果比較となるため確認しない
+        assertTrue(lines[1].startsWith(today + ",1,煌木　太郎,煌木　太郎の記載、タイトル,煌木　太郎の記載、内容,"));
+
+        // 従業員を指定した場合
+        result = mockMvc.perform(get("/reports/export").param("from", today).param("to", today).param("employeeCode", "2"))
+                .andReturn();
+        csv = mockMvc.perform(asyncDispatch(result)).andReturn().getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(2, csv.split("\r\n").length);
+    }
+
+    // 日報CSV出力
+    // 管理者以外は出力できないこと
+    @Test
+    @WithMockUser(authorities = "GENERAL")
+    void testExportForbidden() throws Exception {
+        mockMvc.perform(get("/reports/export")).andExpect(status().isForbidden());
+    }
+
+    // 日報更新処理
+    // 表示後に他の利用者が更新していた場合は上書きせず、最新の内容を表示し直すこと
+    @Test
+    @Transactional
+    void testUpdateConflict() throws Exception {
+        UserDetail userDetail = new UserDetail(entityManager.find(Employee.class, "1"));
+        Report report = new Report();
+        report.setReportDate(LocalDate.now());
+        report.setTitle("更新1");
+        report.setContent("内容");
+        report.setVersion(0);
+
+        // 1人目の更新(表示時のバージョンと一致)
+        mockMvc.perform((post("/reports/1/update/")).flashAttr("report", report).with(user(userDetail)).with(csrf()))
+                .andExpect(redirectedUrl("/reports"));
+        entityManager.flush();
+
+        // 2人目の更新(同じバージョンで表示した画面から更新)
+        report.setTitle("更新2");
+        MvcResult result = mockMvc
+                .perform((post("/reports/1/update/")).flashAttr("report", report).with(user(userDetail)).with(csrf()))
+                .andExpect(model().attribute("versionError", "他のユーザーが先に更新しました。最新の内容を確認して再度更新してください"))
+                .andExpect(view().name("reports/update"))
+                .andReturn();
+
+        // 1人目の更新内容と新しいバージョンが表示されること
+        Report latest = (Report) result.getModelAndView().getModel().get("report");
+        assertEquals("更新1", latest.getTitle());
+        assertEquals(1, latest.getVersion());
+    }
+
+    // 日報集計画面
+    // 日報の登録・削除が集計に反映され、日報テーブルから作り直した集計と一致すること
+    @Test
+    @Transactional
+    void testSummary() throws Exception {
+        Employee employee = entityManager.find(Employee.class, "1");
+        UserDetail userDetail = new UserDetail(employee);
+        LocalDate date = LocalDate.now().minusDays(1);
+        YearMonth month = YearMonth.from(date);
+        // 初期データの日報(本日)が同じ月であれば2件となる
+        int expectedCount = month.equals(YearMonth.now()) ? 2 : 1;
+
+        Report report = new Report();
+        report.setReportDate(date);
+        report.setTitle("集計");
+        report.setContent("12345");
+        mockMvc.perform((post("/reports/add")).flashAttr("report", report).with(user(userDetail)).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(get("/reports/summary").param("month", month.toString()).with(user(userDetail)))
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attribute("month", month)) // Modelの内容を確認
+                .andExpect(view().name("reports/summary")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        @SuppressWarnings("unchecked")
+        List<MonthlySummary> summaries = (List<MonthlySummary>) result.getModelAndView().getModel().get("summaries");
+        assertEquals(2, summaries.size());
+        MonthlySummary summary = summaries.get(0);
+        assertEquals("1", summary.getEmployeeCode());
+        assertEquals(expectedCount, summary.getReportCount());
+        assertFalse(summary.getMissingDays().contains(date.getDayOfMonth()));
+
+        // 日報テーブルから作り直した集計と一致すること
+        reportSummaryService.rebuild();
+        MonthlySummary rebuilt = reportSummaryService.findMonthly(month).get(0);
+        assertEquals(summary.getReportCount(), rebuilt.getReportCount());
+        assertEquals(summary.getAverageContentLength(), rebuilt.getAverageContentLength());
+        assertEquals(summary.getMissingDays(), rebuilt.getMissingDays());
+
+        // 削除すると件数が減ること
+        Integer id = entityManager.createQuery("SELECT r.id FROM Report r WHERE r.title = '集計'", Integer.class)
+                .getSingleResult();
+        mockMvc.perform(post("/reports/" + id + "/delete").with(user(userDetail)).with(csrf()))
+                .andExpect(status().is3xxRedirection());
+        assertEquals(expectedCount - 1, reportSummaryService.findMonthly(month).get(0).getReportCount());
+    }
+
+    // 日報集計画面
+    // 管理者以外は表示できないこと
+    @Test
+    @WithMockUser(authorities = "GENERAL")
+    void testSummaryForbidden() throws Exception {
+        mockMvc.perform(get("/reports/summary")).andExpect(status().isForbidden());
+    }
+
+    // 日報未提出画面
+    // 検出ジョブで日報のない従業員のみが登録され、実行結果とあわせて表示されること
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @Transactional
+    void testMissing() throws Exception {
+        String today = LocalDate.now().toString();
+        // 従業員2の本日の日報を削除する
+        UserDetail userDetail = new UserDetail(entityManager.find(Employee.class, "2"));
+        mockMvc.perform(post("/reports/2/delete").with(user(userDetail)).with(csrf()))
+                .andExpect(redirectedUrl("/reports"));
+
+        // 検出ジョブの実行
+        mockMvc.perform(post("/reports/missing").param("date", today).with(csrf()))
+                .andExpect(redirectedUrl("/reports/missing?date=" + today));
+
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(get("/reports/missing").param("date", today)) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("run")) // Modelの内容を確認
+                .andExpect(view().name("reports/missing")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        @SuppressWarnings("unchecked")
+        List<MissingReport> missingReports = (List<MissingReport>) result.getModelAndView().getModel()
+                .get("missingReports");
+        assertEquals(1, missingReports.size());
+        assertEquals("2", missingReports.get(0).getEmployeeCode());
+        assertEquals(1, ((MissingReportRun) result.getModelAndView().getModel().get("run")).getMissingCount());
+
+        // 前日は従業員の登録前のため未提出としない
+        mockMvc.perform(post("/reports/missing").param("date", LocalDate.now().minusDays(1).toString()).with(csrf()));
+        result = mockMvc.perform(get("/reports/missing").param("date", LocalDate.now().minusDays(1).toString()))
+                .andReturn();
+        assertEquals(List.of(), result.getModelAndView().getModel().get("missingReports"));
+    }
+
+    // 日報一括登録処理
+    // 正しい行のみ登録され、登録済みの日付・存在しない従業員の行はエラーとなること
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    @Transactional
+    void testImport() throws Exception {
+        String past = LocalDate.now().minusDays(1).toString();
+        String today = LocalDate.now().toString();
+        // 日報CSV出力と同じ形式(BOM付き、ダブルクォート囲み、不要な列を含む)
+        String csv = "\uFEFF日付,社員番号,氏名,タイトル,内容,登録日時,更新日時\r\n"
+                + past + ",1,煌木　太郎,一括登録,\"1行目\r\n2行目, \"\"引用\"\"\",,\r\n"
+                + today + ",1,煌木　太郎,重複,内容,,\r\n"
+                + past + ",999,不明,従業員なし,内容,,\r\n"
+                + "2024/01/01,1,煌木　太郎,日付誤り,内容,,\r\n";
+        MockMultipartFile file = new MockMultipartFile("file", "reports.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(multipart("/reports/import").file(file).with(csrf()))
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("result")) // Modelの内容を確認
+                .andExpect(view().name("reports/import")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        ImportResult importResult = (ImportResult) result.getModelAndView().getModel().get("result");
+        assertEquals(1, importResult.getImported());
+        assertEquals(3, importResult.getErrorCount());
+        // エラーは行番号順(行番号はファイルの行 1件目の日報は内容に改行を含むため2行となる)
+        assertEquals(4, importResult.getErrors().get(0).getRow());
+        assertEquals(ErrorKinds.DATECHECK_ERROR, importResult.getErrors().get(0).getKind());
+        assertEquals(5, importResult.getErrors().get(1).getRow());
+        assertEquals(ErrorKinds.VALIDATION_ERROR, importResult.getErrors().get(1).getKind());
+        assertEquals(6, importResult.getErrors().get(2).getRow());
+        assertEquals(ErrorKinds.VALIDATION_ERROR, importResult.getErrors().get(2).getKind());
+
+        Report report = entityManager
+                .createQuery("SELECT r FROM Report r WHERE r.title = '一括登録'", Report.class)
+                .getSingleResult();
+        assertEquals("1行目\r\n2行目, \"引用\"", report.getContent());
+        assertEquals(LocalDate.now().minusDays(1), report.getReportDate());
+    }
+
+    // 日報一括登録処理
+    // 管理者以外は登録できないこと
+    @Test
+    @WithMockUser(authorities = "GENERAL")
+    void testImportForbidden() throws Exception {
+        mockMvc.perform(get("/reports/import")).andExpect(status().isForbidden());
+    }
+
+    // 日報詳細画面
+    @Test
+    @WithMockUser
+    void testDetail() throws Exception {
+        // HTTPリクエストに対するレスポンスの検証
+        MvcResult result = mockMvc.perform(get("/reports/1/")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(model().attributeExists("report")) // Modelの内容を確認
+                .andExpect(view().name("reports/detail")) // viewの確認
+                .andReturn(); // 内容の取得
+
+        Report report = (Report) result.getModelAndView().getModel().get("report");
+        assertEquals(report.getEmployee().getName(), "煌木　太郎");
+    }
+
+    // 日報詳細画面・一覧画面の条件付きGET
+    // 同じセッションで内容が変わっていなければ304を返し、ETagはセッションごとに異なること
+    @Test
+    @WithMockUser
+    void testNotModified() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+
+        for (String url : List.of("/reports/1/", "/reports")) {
+            // HTTPリクエストに対するレスポンスの検証
+            MvcResult result = mockMvc.perform(get(url).session(session)) // URLにアクセス
+                    .andExpect(status().isOk()) // ステータスを確認
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private")) // キャッシュ方針の確認
+                    .andReturn(); // 内容の取得
+            String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+            // 同じセッションでETagを送ると304(描画しない)
+            mockMvc.perform(get(url).session(session).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            // 別のセッションでは同じETagでも描画する
+            mockMvc.perform(get(url).session(new MockHttpSession()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk());
+        }
+
+        // 詳細画面はLast-Modifiedも返す
+        mockMvc.perform(get("/reports/1/").session(session))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    // 静的リソース
+    // 内容のハッシュを付けたURLで配信し、長期間キャッシュさせること
+    @Test
+    void testStaticResourceCache() throws Exception {
+        String url = webApplicationContext.getBean("mvcResourceUrlProvider", ResourceUrlProvider.class)
+                .getForLookupPath("/css/bootstrap.min.css");
+        assertTrue(url.matches("/css/bootstrap\\.min-[0-9a-f]{32}\\.css"), url);
+
+        // HTTPリクエストに対するレスポンスの検証
+        mockMvc.perform(get(url)) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public")); // キャッシュ方針の確認
+    }
+
+    // 静的リソースの圧縮版
+    // Accept-Encodingにgzipを含む場合はビルド時に作成した.gzを返すこと
+    @Test
+    void testStaticResourceGzip() throws Exception {
+        String url = webApplicationContext.getBean("mvcResourceUrlProvider", ResourceUrlProvider.class)
+                .getForLookupPath("/js/bootstrap.min.js");
+
+        // HTTPリクエストに対するレスポンスの検証
+        byte[] body = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip")) // URLにアクセス
+                .andExpect(status().isOk()) // ステータスを確認
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip")) // 圧縮方式の確認
+                .andExpect(header().string(HttpHeaders.VARY, "Accept-Encoding")) // 共有キャッシュが圧縮の有無で分けて保存すること
+                .andReturn().getResponse().getContentAsByteArray(); // 内容の取得
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body));
+                InputStream original = new ClassPathResource("static/js/bootstrap.min.js").getInputStream()) {
+            assertArrayEquals(original.readAllBytes(), in.readAllBytes());
+        }
+
+        // Accept-Encodingがない場合は圧縮しない
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    // 日報新規登録処理
+    // テストケース 同一日付の日報が存在
+    @Test
+    @Transactional
+    void testAddErrorDuplicateDate() throws Exception {
+        Employee employee = entityManager.find(Employee.class, "1");
+        UserDetail userDetail = new UserDetail(employee);
+
+        Report report = new Report();
+        report.setReportDate(LocalDate.now());
+        report.setTitle("タイトル");
+        report.setContent("内容");
+
+        // HTTPリクエストに対するレスポンスの検証
+        mockMvc.perform((post("/reports/add")).flashAttr("report", report).with(user(userDetail)).with(csrf()))
+                .andExpect(model().attribute("reportDateError", "既に登録されている日付です"))
+                .andExpect(view().name("reports/new"));
+    }
+
+    // 同一従業員・同一日付の有効な日報はDBの一意制約でも弾かれ、削除済みの日報は対象外となること
+    @Test
+    @Transactional
+    void testUniqueReportDate() {
+        Employee employee = entityManager.find(Employee.class, "1");
+
+        // 削除済みの日報が同じ日付に複数あっても登録できる
+        for (int i = 0; i < 2; i++) {
+            Report deleted = newReport(employee, LocalDate.now().minusDays(1));
+            deleted.setDeleteFlg(true);
+            entityManager.persist(deleted);
+            entityManager.flush();
+        }
+
+        // 有効な日報が同じ日付に存在する場合は一意制約違反
+        Report duplicate = newReport(employee, LocalDate.now());
+        assertThrows(ConstraintViolationException.class, () -> {
+            entityManager.persist(duplicate);
+            entityManager.flush();
+        });
+    }
+
+    // 日報一覧画面の発行SQL数
+    // 従業員・日報が増えても一覧の描画で発行されるSQL数は変わらない(N+1にならない)こと
+    @Test
+    @WithMockUser
+    @Transactional
+    void testListQueryCount() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        insertReports(3, 2);
+        long before = countListQueries(statistics);
+
+        insertReports(8, 2);
+        long after = countListQueries(statistics);
+
+        // 件数のCOUNTと1ページ分の取得のみ
+        assertEquals(2, before);
+        assertEquals(before, after);
+    }
+
+    // 一覧を描画し、その間に発行されたSQL数を返す
+    private long countListQueries(Statistics statistics) throws Exception {
+        // テストで登録したエンティティが永続化コンテキストに残らないようにする
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        mockMvc.perform(get("/reports")).andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    // 従業員と日報を登録する
+    private void insertReports(int employeeCount, int reportCount) {
+        LocalDateTime now = LocalDateTime.now();
+        long offset = (Long) entityManager.createQuery("SELECT COUNT(e) FROM Employee e").getSingleResult();
+
+        for (int i = 0; i < employeeCount; i++) {
+            Employee employee = new Employee();
+            employee.setCode("T" + (offset + i));
+            employee.setName("テスト" + (offset + i));
+            employee.setRole(Role.GENERAL);
+            employee.setPassword("$2a$10$HPIjRCymeRZKEIq.71TDduiEotOlb8Ai6KQUHCs4lGNYlLhcKv4Wi");
+            employee.setDeleteFlg(false);
+            employee.setCreatedAt(now);
+            employee.setUpdatedAt(now);
+            entityManager.persist(employee);
+
+            for (int j = 0; j < reportCount; j++) {
+                entityManager.persist(newReport(employee, LocalDate.now().minusDays(j + 1)));
+            }
+        }
+    }
+
+    // 日報を生成する
+    private Report newReport(Employee employee, LocalDate reportDate) {
+        LocalDateTime now = LocalDateTime.now();
+        Report report = new Report();
+        report.setEmployee(employee);
+        report.setReportDate(reportDate);
+        report.setTitle("タイトル");
+        report.setContent("内容");
+        report.setDeleteFlg(false);
+        report.setCreatedAt(now);
+        report.setUpdatedAt(now);
+        return report;
+    }
+
+}
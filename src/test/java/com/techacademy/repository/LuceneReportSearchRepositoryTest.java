@@ -0,0 +1,33 @@
+package com.techacademy.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+// 組み込みのLuceneインデックスによる全文検索(テスト用設定ではapp.search.engine=lucene)
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class LuceneReportSearchRepositoryTest {
+
+    @Autowired
+    private LuceneReportSearchRepository repository;
+
+    // 有効な日報から作成し直したインデックスで、関連度の上位N件から前のページ分を読み飛ばして取得すること
+    @Test
+    void testRebuildAndSearch() {
+        repository.rebuild();
+
+        List<Integer> ids = repository.searchIds("内容", 0, 10);
+        assertEquals(Set.of(1, 2), Set.copyOf(ids));
+        assertEquals(ids.subList(1, 2), repository.searchIds("内容", 1, 10));
+        assertEquals(List.of(), repository.searchIds("内容", 2, 10));
+        assertEquals(List.of(2), repository.searchIds("田中 内容", 0, 10));
+    }
+}
@@ -0,0 +1,91 @@
+package com.techacademy.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+// 主要なクエリがマイグレーションで作成したインデックスを使うこと(EXPLAINの実行計画で確認する)
+// SQLはリポジトリのクエリからHibernateが生成するものと同じ条件(@SQLRestrictionの削除フラグを含む)とする
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ReportRepository.findByEmployee
+    @Test
+    void testFindByEmployee() {
+        String plan = explain("SELECT r.id FROM reports r WHERE r.employee_code = '1' AND (r.delete_flg = 0)");
+        assertUsesIndex(plan);
+    }
+
+    // ReportRepository.findByReportDateAndEmployee / existsByEmployeeAndReportDate
+    // 従業員・日付の両方で一意制約のインデックスを検索すること
+    @Test
+    void testFindByReportDateAndEmployee() {
+        String plan = explain("SELECT r.id FROM reports r WHERE r.report_date = CURRENT_DATE"
+                + " AND r.employee_code = '1' AND (r.delete_flg = 0)");
+        assertUsesIndex(plan, "uk_reports_employee_date_active");
+        assertTrue(plan.contains("report_date = CURRENT_DATE"), plan);
+    }
+
+    // ReportRepository.findFirstPage / findNextPage(一覧のキーセットページング)
+    @Test
+    void testFindPage() {
+        assertUsesIndex(explain("SELECT r.id, e.name FROM reports r JOIN employees e ON e.code = r.employee_code"
+                + " AND (e.delete_flg = 0) WHERE (r.delete_flg = 0) ORDER BY r.report_date DESC, r.id DESC LIMIT 20"));
+        assertUsesIndex(explain("SELECT r.id FROM reports r WHERE (r.delete_flg = 0) AND (r.report_date < CURRENT_DATE"
+                + " OR (r.report_date = CURRENT_DATE AND r.id < 100)) ORDER BY r.report_date DESC, r.id DESC LIMIT 20"),
+                "idx_reports_delete_flg_report_date_id");
+    }
+
+    // ReportRepository.findListStamp(一覧の更新確認)
+    @Test
+    void testFindListStamp() {
+        assertUsesIndex(explain("SELECT COUNT(r.id), MAX(r.updated_at) FROM reports r WHERE (r.delete_flg = 0)"),
+                "idx_reports_delete_flg_updated_at");
+    }
+
+    // ReportRepository.streamForExport(CSV出力 期間内の有効な日報を日付・ID順に読む)
+    @Test
+    void testStreamForExport() {
+        String plan = explain("SELECT r.id FROM reports r WHERE (r.delete_flg = 0)"
+                + " AND r.report_date BETWEEN CURRENT_DATE - 30 AND CURRENT_DATE ORDER BY r.report_date, r.id");
+        assertUsesIndex(plan, "idx_reports_delete_flg_report_date_id");
+        assertTrue(plan.contains("report_date >="), plan);
+    }
+
+    // EmployeeRepository.findWithoutReport(日報未提出の反結合)
+    @Test
+    void testFindWithoutReport() {
+        String plan = explain("SELECT e.code FROM employees e WHERE (e.delete_flg = 0) AND e.code > ''"
+                + " AND NOT EXISTS (SELECT r.id FROM reports r WHERE (r.delete_flg = 0)"
+                + " AND r.employee_code = e.code AND r.report_date = CURRENT_DATE) ORDER BY e.code LIMIT 500");
+        assertUsesIndex(plan, "uk_reports_employee_date_active");
+    }
+
+    // インデックスのない条件では全件走査となること(検証方法の確認)
+    @Test
+    void testTableScan() {
+        assertTrue(explain("SELECT r.id FROM reports r WHERE r.title = 'タイトル'").contains("tableScan"));
+    }
+
+    // 実行計画を取得する
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    // 全件走査がなく、指定したインデックスを使っていること
+    private static void assertUsesIndex(String plan, String... indexNames) {
+        assertFalse(plan.contains("tableScan"), plan);
+        for (String indexName : indexNames) {
+            assertTrue(plan.contains(indexName), plan);
+        }
+    }
+}
@@ -2,17 +2,46 @@ package com.techacademy.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.constants.ErrorMessage;
 
 import com.techacademy.entity.Employee;
 import com.techacademy.entity.Employee.Role;
+import com.techacademy.entity.Report;
+import com.techacademy.repository.EmployeeRepository;
 
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
@@ -21,6 +50,27 @@ class EmployeeServiceTest {
     @Autowired
     private EmployeeService service;
 
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private UserDetailService userDetailService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Test
     @WithMockUser
     void testFindAll() {
@@ -62,4 +112,236 @@ class EmployeeServiceTest {
 
     }
 
+    // 従業員の1件取得
+    // 2回目以降は2次キャッシュから取得されること
+    @Test
+    void testFindByCodeSecondLevelCache() {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Employee.class);
+        sessionFactory.getStatistics().clear();
+
+        service.findByCode("2");
+        service.findByCode("2");
+
+        CacheRegionStatistics region = sessionFactory.getStatistics().getDomainDataRegionStatistics("employee");
+        assertEquals(1, region.getMissCount());
+        assertEquals(1, region.getHitCount());
+    }
+
+    // 従業員削除処理
+    // 論理削除した従業員は2次キャッシュに残っていても取得・認証されないこと
+    @Test
+    void testDeletedEmployeeInSecondLevelCache() {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(newEmployee("C1")));
+        try {
+            assertNotNull(service.findByCode("C1"));
+
+            UserDetail admin = new UserDetail(service.findByCode("1"));
+            assertEquals(ErrorKinds.SUCCESS, service.delete("C1", admin, reportService));
+
+            // 削除後の状態がキャッシュに保持されていても除外される
+            assertTrue(sessionFactory.getCache().containsEntity(Employee.class, "C1"));
+            assertNull(service.findByCode("C1"));
+            assertThrows(UsernameNotFoundException.class, () -> userDetailService.loadUserByUsername("C1"));
+        } finally {
+            // コミットした従業員が他のテストに残らないようにする
+            jdbcTemplate.update("DELETE FROM employees WHERE code = 'C1'");
+            sessionFactory.getCache().evictEntityData(Employee.class, "C1");
+        }
+    }
+
+    // 従業員更新処理
+    // 認証情報のキャッシュが更新時に破棄されること
+    @Test
+    @Transactional
+    void testUpdateEvictsUserDetailCache() {
+        UserDetails cached = userDetailService.loadUserByUsername("2");
+        // 2回目以降はキャッシュから取得される
+        assertSame(cached, userDetailService.loadUserByUsername("2"));
+
+        Employee employee = new Employee();
+        employee.setName("田中　次郎");
+        employee.setPassword("abcd1234");
+        employee.setRole(Role.GENERAL);
+        // 更新画面の表示時のバージョン
+        employee.setVersion(0);
+        assertEquals(ErrorKinds.SUCCESS, service.update(employee, "2"));
+
+        // 更新後はDBから取得し直される
+        UserDetails reloaded = userDetailService.loadUserByUsername("2");
+        assertNotSame(cached, reloaded);
+        assertEquals("田中　次郎", ((UserDetail) reloaded).getName());
+
+        // ロールバックされる更新内容が他のテストに残らないようにする
+        cacheManager.getCache(UserDetailService.CACHE_NAME).clear();
+    }
+
+    // 従業員登録・更新処理
+    // パスワードのハッシュ計算が混雑している場合は例外(500)ではなく混雑エラーとなり、登録・更新されないこと
+    @Test
+    @Transactional
+    void testSaveWhenPasswordHashingBusy() {
+        PasswordEncoder busyEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new AuthenticationServiceException("Password hashing is overloaded");
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                throw new AuthenticationServiceException("Password hashing is overloaded");
+            }
+        };
+        EmployeeService busyService = new EmployeeService(employeeRepository, busyEncoder);
+
+        Employee employee = new Employee();
+        employee.setCode("B1");
+        employee.setName("混雑　太郎");
+        employee.setPassword("abcd1234");
+        employee.setRole(Role.GENERAL);
+        assertEquals(ErrorKinds.PASSWORD_BUSY_ERROR, busyService.save(employee));
+        assertNull(service.findByCode("B1"));
+
+        Employee update = new Employee();
+        update.setName("田中　次郎");
+        update.setPassword("abcd1234");
+        update.setRole(Role.GENERAL);
+        update.setVersion(0);
+        assertEquals(ErrorKinds.PASSWORD_BUSY_ERROR, busyService.update(update, "2"));
+        assertEquals("田中　太郎", service.findByCode("2").getName());
+        // 従業員の登録・更新画面のパスワード欄に表示される
+        assertEquals("passwordError", ErrorMessage.getErrorName(ErrorKinds.PASSWORD_BUSY_ERROR));
+    }
+
+    // 認証情報の取得
+    // 他のサーバーで更新・削除された場合、このサーバーのキャッシュの有効期限が切れた後は
+    // 2次キャッシュに古い従業員が残っていてもDBの内容で認証すること
+    @Test
+    @Transactional
+    void testUserDetailCacheUpdatedElsewhere() {
+        UserDetails cached = userDetailService.loadUserByUsername("2");
+        assertSame(cached, userDetailService.loadUserByUsername("2"));
+        Cache cache = cacheManager.getCache(UserDetailService.CACHE_NAME);
+
+        // 他のサーバーでの更新(キャッシュを破棄せずDBのみ更新する) 有効期限内はキャッシュを使う
+        jdbcTemplate.update("UPDATE employees SET name = '田中　次郎', version = version + 1 WHERE code = '2'");
+        entityManager.clear();
+        assertSame(cached, userDetailService.loadUserByUsername("2"));
+
+        // 有効期限の経過後
+        cache.evict("2");
+        assertEquals("田中　次郎", ((UserDetail) userDetailService.loadUserByUsername("2")).getName());
+
+        // 他のサーバーでの削除
+        jdbcTemplate.update("UPDATE employees SET delete_flg = true, version = version + 1 WHERE code = '2'");
+        entityManager.clear();
+        cache.evict("2");
+        assertThrows(UsernameNotFoundException.class, () -> userDetailService.loadUserByUsername("2"));
+
+        // ロールバックされる更新内容が他のテストに残らないようにする
+        cache.clear();
+    }
+
+    // 認証情報(セッションに保存する形式)
+    // 従業員エンティティ・日報を含まず、パスワードを保存しないこと
+    @Test
+    @Transactional
+    void testUserDetailSerialization() throws Exception {
+        UserDetail userDetail = (UserDetail) userDetailService.loadUserByUsername("1");
+        byte[] bytes = serialize(userDetail);
+        String serialized = new String(bytes, StandardCharsets.ISO_8859_1);
+        // 従業員エンティティを含まない(権限の列挙型Employee.Roleのみ含む)
+        assertFalse(serialized.replace(Role.class.getName(), "").contains(Employee.class.getName()), serialized);
+        assertFalse(serialized.contains("reportList"), serialized);
+        assertFalse(serialized.contains(Report.class.getName()), serialized);
+        assertFalse(serialized.contains(userDetail.getPassword()), serialized);
+        assertTrue(bytes.length < 1024, String.valueOf(bytes.length));
+
+        UserDetail restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            restored = (UserDetail) in.readObject();
+        }
+        assertEquals("1", restored.getCode());
+        assertEquals("1", restored.getUsername());
+        assertEquals("煌木　太郎", restored.getName());
+        assertEquals(Role.ADMIN, restored.getRole());
+        assertEquals(userDetail.getAuthorities(), restored.getAuthorities());
+        assertNull(restored.getPassword());
+        // キャッシュ中の認証情報はパスワードを保持したまま(ログイン時の照合に使う)
+        assertNotNull(userDetailService.loadUserByUsername("1").getPassword());
+    }
+
+    // 従業員削除処理
+    // 日報の件数に関わらず発行されるSQL数が一定であること
+    @Test
+    @Transactional
+    void testDeleteQueryCount() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        UserDetail userDetail = new UserDetail(service.findByCode("1"));
+
+        long fewReports = countDeleteQueries(statistics, userDetail, "D1", 1);
+        long manyReports = countDeleteQueries(statistics, userDetail, "D2", 30);
+
+        // 従業員の取得・更新と日報の一括更新、日報集計の削除のみ
+        assertEquals(4, fewReports);
+        assertEquals(fewReports, manyReports);
+
+        // 日報がすべて論理削除されていること
+        Long remaining = entityManager
+                .createQuery("SELECT COUNT(r) FROM Report r WHERE r.employee.code IN ('D1', 'D2')", Long.class)
+                .getSingleResult();
+        assertEquals(0L, remaining);
+    }
+
+    // 日報を持つ従業員を登録して削除し、削除処理で発行されたSQL数を返す
+    private long countDeleteQueries(Statistics statistics, UserDetail userDetail, String code, int reportCount) {
+        LocalDateTime now = LocalDateTime.now();
+        Employee employee = newEmployee(code);
+        entityManager.persist(employee);
+
+        for (int i = 0; i < reportCount; i++) {
+            Report report = new Report();
+            report.setEmployee(employee);
+            report.setReportDate(LocalDate.now().minusDays(i));
+            report.setTitle("タイトル");
+            report.setContent("内容");
+            report.setDeleteFlg(false);
+            report.setCreatedAt(now);
+            report.setUpdatedAt(now);
+            entityManager.persist(report);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(ErrorKinds.SUCCESS, service.delete(code, userDetail, reportService));
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Javaのシリアライズ(Spring Sessionがセッションの属性を保存する形式)
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    // 従業員を生成する
+    private Employee newEmployee(String code) {
+        LocalDateTime now = LocalDateTime.now();
+        Employee employee = new Employee();
+        employee.setCode(code);
+        employee.setName("削除テスト");
+        employee.setRole(Role.GENERAL);
+        employee.setPassword("$2a$10$HPIjRCymeRZKEIq.71TDduiEotOlb8Ai6KQUHCs4lGNYlLhcKv4Wi");
+        employee.setDeleteFlg(false);
+        employee.setCreatedAt(now);
+        employee.setUpdatedAt(now);
+        return employee;
+    }
+
 }
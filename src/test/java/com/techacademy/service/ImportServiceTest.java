@@ -0,0 +1,147 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.constants.ErrorKinds;
+import com.techacademy.repository.ReportRepository;
+import com.techacademy.service.ImportResult.RowError;
+
+// 一括登録の登録時のエラー
+// パスワードのハッシュ計算はテスト用にスレッド1つ・待ち行列1件・待ち時間なしとし、混雑した状態とする
+@SpringBootTest(properties = { "app.import.password-pool-size=1", "app.import.password-queue-capacity=1",
+        "app.import.password-queue-timeout=0s" })
+@ExtendWith(SpringExtension.class)
+class ImportServiceTest {
+
+    @Autowired
+    private ImportService service;
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 登録済みの日報の確認(確認後に他の処理が登録した状態とするため、確認結果を空とする)
+    @SpyBean
+    private ReportRepository reportRepository;
+
+    // 待ち行列があふれた場合は、ログインの失敗ではなく行ごとの混雑エラーとなり登録されないこと
+    @Test
+    void testImportEmployeesBusy() throws Exception {
+        StringBuilder csv = new StringBuilder("社員番号,氏名,権限,パスワード\r\n");
+        for (int i = 1; i <= 5; i++) {
+            csv.append("20").append(i).append(",混雑　").append(i).append("郎,一般,password1\r\n");
+        }
+
+        ImportResult result = service
+                .importEmployees(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(0, result.getImported());
+        assertEquals(5, result.getErrorCount());
+        for (RowError error : result.getErrors()) {
+            assertEquals(ErrorKinds.BUSY_ERROR, error.getKind());
+        }
+        assertEquals(2, result.getErrors().get(0).getRow());
+    }
+
+    // 確認後に登録された日報と一意制約違反となった場合は、1行ずつ登録し直して違反した行のみエラーとなること
+    @Test
+    void testImportReportsConstraintViolation() throws Exception {
+        doReturn(List.of()).when(reportRepository).findKeys(any(), any());
+        LocalDate today = LocalDate.now();
+        String csv = "日付,社員番号,タイトル,内容\r\n"
+                + today.minusDays(1) + ",1,タイトル,内容\r\n"
+                + today + ",1,登録済み,内容\r\n"
+                + today.minusDays(2) + ",2,タイトル,内容\r\n";
+
+        ImportResult result = service.importReports(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getErrorCount());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals(ErrorKinds.DATECHECK_ERROR, result.getErrors().get(0).getKind());
+        assertEquals(1, countReports("1", today.minusDays(1)));
+        assertEquals(1, countReports("1", today));
+        assertEquals(1, countReports("2", today.minusDays(2)));
+    }
+
+    // 値に改行を含むレコードがある場合も、エラーの行番号はファイルの行(レコードの開始行)となること
+    @Test
+    void testImportReportsLineNumbers() throws Exception {
+        LocalDate today = LocalDate.now();
+        String csv = "日付,社員番号,タイトル,内容\r\n"
+                + today.minusDays(3) + ",1,タイトル,\"1行目\r\n2行目\n3行目\"\r\n"
+                + today.minusDays(4) + ",1,,内容\r\n"
+                + today.minusDays(5) + ",1,\"タイトル\",\"内容\r\n\"\r\n"
+                + "不正な日付,1,タイトル,内容\r\n";
+
+        ImportResult result = service.importReports(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getErrorCount());
+        assertEquals(5, result.getErrors().get(0).getRow());
+        assertEquals(ErrorKinds.BLANK_ERROR, result.getErrors().get(0).getKind());
+        assertEquals(8, result.getErrors().get(1).getRow());
+    }
+
+    // 日報CSV出力したファイルを読み込んだ場合、数式対策として付けた先頭の'は取り除かれ元の値で登録されること
+    @Test
+    void testImportExportedReports() throws Exception {
+        LocalDate date = LocalDate.now().minusDays(10);
+        String csv = "日付,社員番号,タイトル,内容\r\n"
+                + date + ",1,- 箇条書き,\"- 1行目\r\n- 2行目\"\r\n"
+                + date + ",2,=1+2,'そのまま\r\n";
+        assertEquals(2, service.importReports(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))
+                .getImported());
+
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        reportExportService.exportCsv(date, date, null, exported);
+        assertTrue(exported.toString(StandardCharsets.UTF_8).contains("\"'- 箇条書き\""));
+        jdbcTemplate.update("DELETE FROM reports WHERE report_date = ?", date);
+
+        ImportResult result = service.importReports(new ByteArrayInputStream(exported.toByteArray()));
+
+        assertEquals(2, result.getImported(), String.valueOf(result.getErrors()));
+        assertEquals(List.of("- 箇条書き", "=1+2"), jdbcTemplate.queryForList(
+                "SELECT title FROM reports WHERE report_date = ? ORDER BY employee_code", String.class, date));
+        assertEquals(List.of("- 1行目\r\n- 2行目", "'そのまま"), jdbcTemplate.queryForList(
+                "SELECT content FROM reports WHERE report_date = ? ORDER BY employee_code", String.class, date));
+        jdbcTemplate.update("DELETE FROM reports WHERE report_date = ?", date);
+    }
+
+    // エラーが上限を超えた場合は、追加した順ではなく行番号の小さい順に上限件数まで保持すること
+    @Test
+    void testMaxErrors() {
+        ImportResult result = new ImportResult();
+        for (int row = ImportResult.MAX_ERRORS + 10; row >= 2; row--) {
+            result.addError(row, ErrorKinds.VALIDATION_ERROR, "エラー");
+        }
+
+        assertEquals(ImportResult.MAX_ERRORS + 9, result.getErrorCount());
+        assertEquals(ImportResult.MAX_ERRORS, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(ImportResult.MAX_ERRORS + 1, result.getErrors().get(ImportResult.MAX_ERRORS - 1).getRow());
+    }
+
+    private int countReports(String employeeCode, LocalDate reportDate) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reports WHERE employee_code = ? AND report_date = ?",
+                Integer.class, employeeCode, reportDate);
+    }
+}
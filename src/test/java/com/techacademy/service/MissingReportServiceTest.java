@@ -0,0 +1,69 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.OptionalInt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.entity.MissingReportRun;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class MissingReportServiceTest {
+
+    @Autowired
+    private MissingReportService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 検出対象日(テストデータの従業員2名とも日報がない日)
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM missing_reports WHERE report_date = ?", date);
+        jdbcTemplate.update("DELETE FROM missing_report_runs WHERE report_date = ?", date);
+    }
+
+    // 日報未提出の検出
+    // 同じ日の検出を他のサーバーが実行中の場合は実行せず、実行中のまま上限時間を過ぎた場合は再実行すること
+    @Test
+    void testDetectWhileRunning() {
+        // 他のサーバーが実行中(開始直後)
+        jdbcTemplate.update("INSERT INTO missing_report_runs (report_date, executed_at, duration_millis, missing_count,"
+                + " running) VALUES (?, ?, 0, 0, true)", date, LocalDateTime.now());
+
+        assertEquals(OptionalInt.empty(), service.detect(date));
+        assertEquals(0, countMissingReports());
+        assertTrue(service.findRun(date).get().isRunning());
+
+        // 異常終了して実行中のまま上限時間を過ぎた
+        jdbcTemplate.update("UPDATE missing_report_runs SET executed_at = ? WHERE report_date = ?",
+                LocalDateTime.now().minus(MissingReportService.RUN_TIMEOUT).minusMinutes(1), date);
+
+        assertEquals(OptionalInt.of(2), service.detect(date));
+        assertEquals(2, countMissingReports());
+        MissingReportRun run = service.findRun(date).get();
+        assertFalse(run.isRunning());
+        assertEquals(2, run.getMissingCount());
+
+        // 完了後の再実行は前回の結果を置き換える
+        assertEquals(OptionalInt.of(2), service.detect(date));
+        assertEquals(2, countMissingReports());
+    }
+
+    private int countMissingReports() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM missing_reports WHERE report_date = ?",
+                Integer.class, date);
+    }
+}
@@ -0,0 +1,62 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.techacademy.entity.Employee;
+import com.techacademy.entity.Report;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReportExportServiceTest {
+
+    @Autowired
+    private ReportExportService service;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 日報CSV出力
+    // 数式として解釈される値は先頭に'を付けてダブルクォートで囲み、それ以外の値はそのまま出力されること
+    @Test
+    @Transactional
+    void testExportNeutralizesFormulas() throws Exception {
+        LocalDate date = LocalDate.now().minusDays(1);
+        persistReport("1", date, "=HYPERLINK(\"http://example.com\")", "@SUM(A1)");
+        persistReport("2", date, "-1+2", "\t+内容");
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        service.exportCsv(date, date, null, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith(date + ",1,煌木　太郎,\"'=HYPERLINK(\"\"http://example.com\"\")\",\"'@SUM(A1)\","));
+        assertTrue(lines[2].startsWith(date + ",2,田中　太郎,\"'-1+2\",\"'\t+内容\","));
+    }
+
+    private void persistReport(String employeeCode, LocalDate reportDate, String title, String content) {
+        Report report = new Report();
+        report.setEmployee(entityManager.find(Employee.class, employeeCode));
+        report.setReportDate(reportDate);
+        report.setTitle(title);
+        report.setContent(content);
+        report.setCreatedAt(LocalDateTime.now());
+        report.setUpdatedAt(LocalDateTime.now());
+        entityManager.persist(report);
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,60 @@
+package com.techacademy.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class SessionCleanupServiceTest {
+
+    @Autowired
+    private SessionCleanupService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 有効期限切れのセッションの削除
+    // 件数上限(テスト用設定では2件)を超える期限切れのセッションも全て削除し、有効なセッションは残ること
+    @Test
+    void testDeleteExpired() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            insertSession(now - 1000 - i);
+        }
+        String validId = insertSession(now + 60_000);
+
+        assertEquals(5, service.deleteExpired(now));
+
+        assertEquals(1, count("SELECT COUNT(*) FROM SPRING_SESSION"));
+        assertEquals(1, count("SELECT COUNT(*) FROM SPRING_SESSION WHERE PRIMARY_ID = '" + validId + "'"));
+        // 属性も合わせて削除される
+        assertEquals(1, count("SELECT COUNT(*) FROM SPRING_SESSION_ATTRIBUTES"));
+
+        // 期限切れのセッションがなければ何もしない
+        assertEquals(0, service.deleteExpired(now));
+        jdbcTemplate.update("DELETE FROM SPRING_SESSION");
+    }
+
+    // 指定した有効期限のセッション(属性1件)を登録する
+    private String insertSession(long expiryTime) {
+        String id = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO SPRING_SESSION (PRIMARY_ID, SESSION_ID, CREATION_TIME, LAST_ACCESS_TIME,"
+                + " MAX_INACTIVE_INTERVAL, EXPIRY_TIME, PRINCIPAL_NAME) VALUES (?, ?, ?, ?, 1800, ?, '1')",
+                id, UUID.randomUUID().toString(), expiryTime, expiryTime, expiryTime);
+        jdbcTemplate.update("INSERT INTO SPRING_SESSION_ATTRIBUTES (SESSION_PRIMARY_ID, ATTRIBUTE_NAME, ATTRIBUTE_BYTES)"
+                + " VALUES (?, 'attribute', ?)", id, new byte[] { 1 });
+        return id;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,11 @@
+-- テスト用データ(テスト用設定のspring.flyway.locationsで追加する)
+INSERT INTO employees(code,name,role,password,delete_flg,version,created_at,updated_at)
+     VALUES ('1','煌木　太郎','ADMIN','$2a$10$vY93/U2cXCfEMBESYnDJUevcjJ208sXav23S.K8elE/J6Sxr4w5jO',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+INSERT INTO employees(code,name,role,password,delete_flg,version,created_at,updated_at)
+     VALUES ('2','田中　太郎','GENERAL','$2a$10$HPIjRCymeRZKEIq.71TDduiEotOlb8Ai6KQUHCs4lGNYlLhcKv4Wi',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+INSERT INTO reports(id,report_date,title,content,employee_code,delete_flg,version,created_at,updated_at)
+     VALUES (1,CURRENT_DATE,'煌木　太郎の記載、タイトル','煌木　太郎の記載、内容','1',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+INSERT INTO reports(id,report_date,title,content,employee_code,delete_flg,version,created_at,updated_at)
+     VALUES (2,CURRENT_DATE,'田中　太郎の記載、タイトル','田中　太郎の記載、内容','2',0,0,CURRENT_TIMESTAMP,CURRENT_TIMESTAMP);
+-- 日報IDの採番(reports_seq)は初期データのIDより後ろから始める
+ALTER SEQUENCE reports_seq RESTART WITH 101;